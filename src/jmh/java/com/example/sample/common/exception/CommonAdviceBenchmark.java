@@ -0,0 +1,99 @@
+package com.example.sample.common.exception;
+
+import com.example.sample.customer.CustomerConstant;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// 400 응답 경로: 예외 생성부터 응답 본문 바이트까지
+// throwAndHandle400          : 이전 방식. 스택 트레이스를 채우는 예외 + 매번 ProblemDetail 생성 + Jackson 직렬화
+// stacklessJackson400        : 스택 트레이스만 뺀 경우
+// throwStacklessAndHandle400 : 지금 방식. Common400Exception.stackless + CommonAdvice 의 미리 만든 JSON
+// depth 는 예외를 던지는 곳의 호출 깊이. 실제 요청은 Tomcat / 필터 / DispatcherServlet 을 거쳐 100 단계가 넘고,
+// 예외는 그중 위쪽 몇 단계(DispatcherServlet 까지)만 거슬러 올라가서 잡히므로 unwind 단계만큼만 되돌아간다.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommonAdviceBenchmark {
+
+    private static final String path = "/customer/1000";
+    private static final int unwind = 16;
+
+    @Param({"0", "128"})
+    public int depth;
+
+    private final CommonAdvice commonAdvice = new CommonAdvice();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    // Scope.Thread 의 Setup 은 측정하는 스레드에서 실행되므로 RequestContextHolder 가 그 스레드에 잡힌다.
+    @Setup
+    public void setup() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest("GET", path)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public Object throwAndHandle400() {
+        return atDepth(depth, false, this::serialize);
+    }
+
+    @Benchmark
+    public Object stacklessJackson400() {
+        return atDepth(depth, true, this::serialize);
+    }
+
+    @Benchmark
+    public Object throwStacklessAndHandle400() {
+        return atDepth(depth, true, e -> commonAdvice.onException400(e).getBody());
+    }
+
+    private Object serialize(Common400Exception e) {
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+        problemDetail.setInstance(URI.create(path));
+        try {
+            return objectMapper.writeValueAsBytes(problemDetail);
+        } catch (JsonProcessingException jsonProcessingException) {
+            throw new IllegalStateException(jsonProcessingException);
+        }
+    }
+
+    // depth 단계 아래에서 unwind 단계 더 내려가 던지고, depth 단계에서 잡는다.
+    private static Object atDepth(int depth, boolean stackless, Function<Common400Exception, Object> handler) {
+        if (depth > 0) {
+            return atDepth(depth - 1, stackless, handler);
+        }
+        try {
+            throwAt(unwind, stackless);
+            return null;
+        } catch (Common400Exception e) {
+            return handler.apply(e);
+        }
+    }
+
+    private static void throwAt(int depth, boolean stackless) {
+        if (depth > 0) {
+            throwAt(depth - 1, stackless);
+            return;
+        }
+        throw stackless
+                ? Common400Exception.stackless(CustomerConstant.notFoundMessage)
+                : new Common400Exception(CustomerConstant.notFoundMessage);
+    }
+}
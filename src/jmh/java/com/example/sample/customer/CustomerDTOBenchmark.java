@@ -0,0 +1,47 @@
+package com.example.sample.customer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+// Customer.toDTO() 변환과 CustomerDTO 리스트의 Jackson 직렬화 비용
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerDTOBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private List<Customer> customers;
+    private List<CustomerDTO> customerDTOs;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setup() {
+        customers = LongStream.rangeClosed(1, size)
+                .mapToObj(id -> new Customer(id, "박진희", "010" + (40_000_000 + id)))
+                .toList();
+        customerDTOs = customers.stream().map(Customer::toDTO).toList();
+        // MappingJackson2HttpMessageConverter 와 같은 설정의 ObjectMapper
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+    }
+
+    @Benchmark
+    public List<CustomerDTO> toDTO() {
+        return customers.stream().map(Customer::toDTO).toList();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(customerDTOs);
+    }
+}
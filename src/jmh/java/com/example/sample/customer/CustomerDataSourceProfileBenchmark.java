@@ -0,0 +1,69 @@
+package com.example.sample.customer;
+
+import com.example.sample.SampleApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 동시 요청 16 개에서 findById / save 의 지연 분포 (p99 는 결과의 ·p0.99 줄)
+// profile=default 는 기본 설정 (SQL 로그만 끔), high-throughput 은 풀 크기 / 쿼리 캐시 설정을 켠다.
+//  ./mvnw -Pjmh test-compile exec:exec -Djmh.benchmarks=CustomerDataSourceProfileBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class CustomerDataSourceProfileBenchmark {
+
+    @Param({"default", "high-throughput"})
+    private String profile;
+
+    private final AtomicLong tel = new AtomicLong(1_000_000_000L);
+
+    private ConfigurableApplicationContext context;
+    private CustomerRepository repository;
+    private Long id;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(SampleApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .profiles(profile)
+                .properties(
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql=WARN",
+                        "logging.level.com.example.sample=WARN",
+                        "logging.level.com.example.sample.common.jdbc=INFO",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "sample.openapi-cache.warm-up=false"
+                )
+                .run();
+        repository = context.getBean(CustomerRepository.class);
+        id = repository.save(new Customer(null, "박진희", "0" + tel.incrementAndGet())).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Customer> findById() {
+        return repository.findById(id);
+    }
+
+    @Benchmark
+    public Customer save() {
+        return repository.save(new Customer(null, "박진희", "0" + tel.incrementAndGet()));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.sample.customer;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// GET /customer/{id} 응답 본문 하나를 쓰는 비용
+// jackson     : 기본 MappingJackson2HttpMessageConverter (BeanSerializer)
+// serializer  : 같은 컨버터 + CustomerDTOSerializer
+// cachedBytes : CustomerJsonCache 의 byte[] 를 ByteArrayHttpMessageConverter 로 그대로 쓰기
+// *Only       : 컨버터(헤더 처리 등) 없이 직렬화만
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerJsonBenchmark {
+
+    private final CustomerSnapshot customer = new CustomerSnapshot(1L, "박진희", "01040234504", 3L);
+    private final CustomerDTO customerDTO = customer.toDTO();
+
+    private MappingJackson2HttpMessageConverter jackson;
+    private MappingJackson2HttpMessageConverter serializer;
+    private ByteArrayHttpMessageConverter bytes;
+    private CustomerJsonCache jsonCache;
+    private OutputMessage output;
+
+    @Setup
+    public void setup() {
+        jackson = new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+        serializer = new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json()
+                .serializers(new CustomerDTOSerializer())
+                .build());
+        bytes = new ByteArrayHttpMessageConverter();
+        jsonCache = new CustomerJsonCache(serializer.getObjectMapper(), 10_000, Duration.ofMinutes(10));
+        output = new OutputMessage();
+    }
+
+    @Benchmark
+    public int jackson() throws IOException {
+        jackson.write(customerDTO, MediaType.APPLICATION_JSON, output.reset());
+        return output.body.size();
+    }
+
+    @Benchmark
+    public int serializer() throws IOException {
+        serializer.write(customerDTO, MediaType.APPLICATION_JSON, output.reset());
+        return output.body.size();
+    }
+
+    @Benchmark
+    public int cachedBytes() throws IOException {
+        bytes.write(jsonCache.toJson(customer), MediaType.APPLICATION_JSON, output.reset());
+        return output.body.size();
+    }
+
+    @Benchmark
+    public byte[] jacksonOnly() throws IOException {
+        return jackson.getObjectMapper().writeValueAsBytes(customerDTO);
+    }
+
+    @Benchmark
+    public byte[] serializerOnly() throws IOException {
+        return serializer.getObjectMapper().writeValueAsBytes(customerDTO);
+    }
+
+    @Benchmark
+    public byte[] cachedBytesOnly() {
+        return jsonCache.toJson(customer);
+    }
+
+    // 응답 스트림 대신 재사용하는 버퍼
+    private static class OutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+
+        OutputMessage reset() {
+            headers.clear();
+            body.reset();
+            return this;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
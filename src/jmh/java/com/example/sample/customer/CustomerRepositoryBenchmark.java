@@ -0,0 +1,61 @@
+package com.example.sample.customer;
+
+import com.example.sample.SampleApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// H2 위에서 CustomerRepository.findById / save 비용 (SQL 로그는 끈다)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerRepositoryBenchmark {
+
+    // tel 은 customer_tel_uk 유니크 인덱스가 있어서 매번 다르게 만든다.
+    private final AtomicLong tel = new AtomicLong(1_000_000_000L);
+
+    private ConfigurableApplicationContext context;
+    private CustomerRepository repository;
+    private Long id;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(SampleApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties(
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql=WARN",
+                        "logging.level.com.example.sample=WARN",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.show_sql=false"
+                )
+                .run();
+        repository = context.getBean(CustomerRepository.class);
+        id = repository.save(new Customer(null, "박진희", "0" + tel.incrementAndGet())).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Customer> findById() {
+        return repository.findById(id);
+    }
+
+    @Benchmark
+    public Customer save() {
+        return repository.save(new Customer(null, "박진희", "0" + tel.incrementAndGet()));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.sample.customer;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// CustomerInsertRequest 의 @NotBlank / @Size / @Pattern 검증 비용
+// validate* 는 Hibernate Validator 직접 호출, binding* 는 컨트롤러처럼 Errors 에 담는 경우,
+// precompiled* 는 CustomerRequestValidator. 할당량은 -prof gc 의 gc.alloc.rate.norm 으로 비교한다.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerRequestValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private SpringValidatorAdapter springValidator;
+    private final CustomerRequestValidator precompiledValidator = new CustomerRequestValidator();
+
+    private final CustomerRequest.CustomerInsertRequest valid = new CustomerRequest.CustomerInsertRequest("박진희", "01040234504");
+    private final CustomerRequest.CustomerInsertRequest invalid = new CustomerRequest.CustomerInsertRequest("", "010-4023-4504");
+
+    @Setup
+    public void setup() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        springValidator = new SpringValidatorAdapter(validator);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CustomerRequest.CustomerInsertRequest>> validateValid() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CustomerRequest.CustomerInsertRequest>> validateInvalid() {
+        return validator.validate(invalid);
+    }
+
+    @Benchmark
+    public Errors bindingValid() {
+        Errors errors = new BeanPropertyBindingResult(valid, "request");
+        springValidator.validate(valid, errors);
+        return errors;
+    }
+
+    @Benchmark
+    public Errors bindingInvalid() {
+        Errors errors = new BeanPropertyBindingResult(invalid, "request");
+        springValidator.validate(invalid, errors);
+        return errors;
+    }
+
+    @Benchmark
+    public Errors precompiledBindingValid() {
+        Errors errors = new BeanPropertyBindingResult(valid, "request");
+        precompiledValidator.validate(valid, errors);
+        return errors;
+    }
+
+    @Benchmark
+    public Errors precompiledBindingInvalid() {
+        Errors errors = new BeanPropertyBindingResult(invalid, "request");
+        precompiledValidator.validate(invalid, errors);
+        return errors;
+    }
+
+    @Benchmark
+    public String precompiledValid() {
+        return precompiledValidator.firstError(valid);
+    }
+
+    @Benchmark
+    public String precompiledInvalid() {
+        return precompiledValidator.firstError(invalid);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.sample.common.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 응답 시간 기울기(gradient)로 동시 처리 한도를 조절한다. (Netflix concurrency-limits 의 Gradient2 방식)
+// window 마다 평균 응답 시간(shortRtt)을 오래 본 평균(longRtt)과 비교해서,
+// 느려지면 한도를 줄이고(최대 절반까지) 그대로면 sqrt(limit) 만큼 늘린다.
+// DB 가 느려질 때 Tomcat 스레드가 CustomerService 에 쌓이기 전에 한도가 먼저 줄어든다.
+public class AdaptiveConcurrencyLimiter {
+
+    // longRtt 보다 이만큼 느려지기 전까지는 한도를 줄이지 않는다.
+    private static final double rttTolerance = 1.5;
+    private static final double smoothing = 0.2;
+    private static final double longRttWeight = 0.05;
+    private static final int minWindowSamples = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    // 아래 값은 synchronized (this) 안에서만 바꾼다.
+    private double longRttNanos;
+    private long windowStartNanos;
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long windowNanos, long nowNanos) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowNanos = windowNanos;
+        this.windowStartNanos = nowNanos;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // tryAcquire 가 true 였던 요청이 끝나면 부른다.
+    public void release(long rttNanos, long nowNanos) {
+        int current = inFlight.getAndDecrement();
+        sample(rttNanos, current, nowNanos);
+    }
+
+    private synchronized void sample(long rttNanos, int inFlightAtRelease, long nowNanos) {
+        windowRttSum += rttNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtRelease);
+        if (nowNanos - windowStartNanos < windowNanos || windowSamples < minWindowSamples) {
+            return;
+        }
+        limit = nextLimit((double) windowRttSum / windowSamples);
+        windowStartNanos = nowNanos;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+    }
+
+    private double nextLimit(double shortRttNanos) {
+        if (longRttNanos == 0) {
+            longRttNanos = shortRttNanos;
+        } else {
+            longRttNanos = longRttNanos * (1 - longRttWeight) + shortRttNanos * longRttWeight;
+        }
+        // 부하가 빠진 뒤에는 longRtt 가 높게 남아서 한도가 계속 오르므로 빨리 따라 내려오게 한다.
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+        // 한도의 절반도 쓰지 않았으면 느려진 원인이 동시성이 아니므로 한도를 그대로 둔다.
+        if (windowMaxInFlight < limit / 2) {
+            return limit;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / shortRttNanos));
+        double next = limit * gradient + Math.sqrt(limit);
+        next = limit * (1 - smoothing) + next * smoothing;
+        return Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public synchronized double getLongRttMillis() {
+        return longRttNanos / 1_000_000d;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.sample.common.admission;
+
+import com.example.sample.customer.CustomerConstant;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+@ConditionalOnProperty(prefix = "sample.admission", name = "enabled", havingValue = "true")
+public class AdmissionConfig {
+
+    @Bean
+    AdmissionInterceptor admissionInterceptor(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        return new AdmissionInterceptor(properties, meterRegistry);
+    }
+
+    // 고객 API 에만 적용한다. actuator 나 api-docs 는 서버가 혼잡할 때도 응답해야 한다.
+    // 변경 피드(long-poll / SSE)는 일부러 오래 붙잡는 요청이라 동시 처리 수와 응답 시간 측정에서 뺀다.
+    @Bean
+    MappedInterceptor admissionMappedInterceptor(AdmissionInterceptor admissionInterceptor) {
+        return new MappedInterceptor(
+                new String[]{CustomerConstant.url, CustomerConstant.url + "/**"},
+                new String[]{CustomerConstant.changesUrl},
+                admissionInterceptor
+        );
+    }
+
+    @Bean
+    MeterBinder admissionMetrics(AdmissionInterceptor admissionInterceptor) {
+        AdaptiveConcurrencyLimiter limiter = admissionInterceptor.getConcurrencyLimiter();
+        return registry -> {
+            Gauge.builder("admission.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .register(registry);
+            Gauge.builder("admission.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Requests admitted and not yet completed")
+                    .register(registry);
+            Gauge.builder("admission.concurrency.rtt", limiter, AdaptiveConcurrencyLimiter::getLongRttMillis)
+                    .description("Long-term average response time the limit is compared against")
+                    .baseUnit("milliseconds")
+                    .register(registry);
+            Gauge.builder("admission.clients", admissionInterceptor, AdmissionInterceptor::getClientCount)
+                    .description("Clients with a live token bucket")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    AdmissionEndpoint admissionEndpoint(AdmissionProperties properties, AdmissionInterceptor admissionInterceptor) {
+        return new AdmissionEndpoint(properties, admissionInterceptor);
+    }
+
+    // GET /actuator/admission : 설정값과 현재 한도, 엔드포인트별 남은 토큰
+    @Endpoint(id = "admission")
+    static class AdmissionEndpoint {
+
+        private final AdmissionProperties properties;
+        private final AdmissionInterceptor admissionInterceptor;
+
+        AdmissionEndpoint(AdmissionProperties properties, AdmissionInterceptor admissionInterceptor) {
+            this.properties = properties;
+            this.admissionInterceptor = admissionInterceptor;
+        }
+
+        @ReadOperation
+        public Map<String, Object> admission() {
+            AdaptiveConcurrencyLimiter limiter = admissionInterceptor.getConcurrencyLimiter();
+            Map<String, Object> concurrency = new LinkedHashMap<>();
+            concurrency.put("limit", limiter.getLimit());
+            concurrency.put("inFlight", limiter.getInFlight());
+            concurrency.put("rttMillis", limiter.getLongRttMillis());
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("settings", properties);
+            result.put("concurrency", concurrency);
+            result.put("clients", admissionInterceptor.getClientCount());
+            result.put("endpointTokens", admissionInterceptor.getEndpointTokens());
+            return result;
+        }
+    }
+}
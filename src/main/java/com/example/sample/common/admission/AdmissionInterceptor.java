@@ -0,0 +1,136 @@
+package com.example.sample.common.admission;
+
+import com.example.sample.common.exception.Common429Exception;
+import com.example.sample.common.exception.Common503Exception;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// 컨트롤러가 실행되기 전에 (트랜잭션/JPA 작업 전에) 요청을 받을지 정한다.
+// 1. 클라이언트(원격 주소)별 토큰 버킷  -> 429
+// 2. 엔드포인트(메서드 + URL 패턴)별 토큰 버킷 -> 429
+// 3. 응답 시간에 맞춰 조절되는 동시 처리 한도 -> 503
+// 거절은 예외로 던지고 CommonAdvice 가 Retry-After 를 붙인 ProblemDetail 로 응답한다.
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    static final String clientLimitMessage = "요청이 너무 많습니다. 잠시 후 다시 시도해주세요.";
+    static final String endpointLimitMessage = "이 API 에 요청이 몰리고 있습니다. 잠시 후 다시 시도해주세요.";
+    static final String overloadMessage = "서버가 혼잡합니다. 잠시 후 다시 시도해주세요.";
+
+    // 허용된 요청의 시작 시각. 비동기(StreamingResponseBody 등) 재디스패치 때도 한 번만 세도록 요청 속성에 둔다.
+    private static final String startAttribute = AdmissionInterceptor.class.getName() + ".start";
+
+    private final AdmissionProperties properties;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final Cache<String, TokenBucket> clientBuckets;
+    private final Map<String, TokenBucket> endpointBuckets = new ConcurrentHashMap<>();
+
+    private final Counter clientRejected;
+    private final Counter endpointRejected;
+    private final Counter concurrencyRejected;
+
+    public AdmissionInterceptor(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(
+                properties.concurrencyInitial(), properties.concurrencyMin(), properties.concurrencyMax(),
+                properties.concurrencyWindow().toNanos(), System.nanoTime()
+        );
+        // 오래 요청이 없는 클라이언트의 버킷은 버린다. (다시 오면 가득 찬 버킷으로 시작)
+        this.clientBuckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterAccess(Duration.ofMinutes(1))
+                .build();
+        this.clientRejected = rejected(meterRegistry, "client");
+        this.endpointRejected = rejected(meterRegistry, "endpoint");
+        this.concurrencyRejected = rejected(meterRegistry, "concurrency");
+    }
+
+    private static Counter rejected(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("admission.rejected")
+                .description("Requests rejected before reaching the controller")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod) || request.getAttribute(startAttribute) != null) {
+            return true;
+        }
+        long now = System.nanoTime();
+
+        // server.forward-headers-strategy 가 설정되어 있으면 RemoteIpValve(native) 나 ForwardedHeaderFilter(framework) 가
+        // 이 인터셉터보다 먼저 getRemoteAddr 를 X-Forwarded-For / Forwarded 의 클라이언트 주소로 바꿔 둔다.
+        TokenBucket clientBucket = clientBuckets.get(request.getRemoteAddr(),
+                key -> new TokenBucket(properties.clientRate(), properties.clientBurst(), now));
+        long wait = clientBucket.tryAcquire(now);
+        if (wait > 0) {
+            clientRejected.increment();
+            throw new Common429Exception(clientLimitMessage, retryAfterSeconds(wait));
+        }
+
+        TokenBucket endpointBucket = endpointBuckets.computeIfAbsent(endpoint(request),
+                key -> new TokenBucket(properties.endpointRate(), properties.endpointBurst(), now));
+        wait = endpointBucket.tryAcquire(now);
+        if (wait > 0) {
+            endpointRejected.increment();
+            throw new Common429Exception(endpointLimitMessage, retryAfterSeconds(wait));
+        }
+
+        if (!concurrencyLimiter.tryAcquire()) {
+            concurrencyRejected.increment();
+            throw new Common503Exception(overloadMessage, 1);
+        }
+        request.setAttribute(startAttribute, now);
+        return true;
+    }
+
+    // 비동기 처리가 시작되면 afterCompletion 대신 afterConcurrentHandlingStarted 가 불리므로,
+    // 한도는 응답이 끝난 뒤 재디스패치의 afterCompletion 에서 돌려준다.
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(startAttribute);
+        if (start != null) {
+            request.removeAttribute(startAttribute);
+            long now = System.nanoTime();
+            concurrencyLimiter.release(now - (long) start, now);
+        }
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    public long getClientCount() {
+        return clientBuckets.estimatedSize();
+    }
+
+    // 엔드포인트별로 지금 남은 토큰 수
+    public Map<String, Double> getEndpointTokens() {
+        long now = System.nanoTime();
+        Map<String, Double> tokens = new TreeMap<>();
+        endpointBuckets.forEach((endpoint, bucket) -> tokens.put(endpoint, bucket.available(now)));
+        return tokens;
+    }
+}
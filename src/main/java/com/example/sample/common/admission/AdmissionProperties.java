@@ -0,0 +1,22 @@
+package com.example.sample.common.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+// sample.admission.* 설정. rate 는 초당 요청 수, burst 는 한 번에 몰려도 받아 주는 요청 수.
+@ConfigurationProperties(prefix = "sample.admission")
+public record AdmissionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("100") double clientRate,
+        @DefaultValue("200") double clientBurst,
+        @DefaultValue("1000") double endpointRate,
+        @DefaultValue("2000") double endpointBurst,
+        @DefaultValue("100000") long maxClients,
+        @DefaultValue("50") int concurrencyInitial,
+        @DefaultValue("8") int concurrencyMin,
+        @DefaultValue("400") int concurrencyMax,
+        @DefaultValue("100ms") Duration concurrencyWindow
+) {
+}
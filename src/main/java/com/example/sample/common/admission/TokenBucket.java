@@ -0,0 +1,42 @@
+package com.example.sample.common.admission;
+
+// 초당 rate 개씩 채워지고 최대 burst 개까지 쌓이는 토큰 버킷.
+// 시간은 호출하는 쪽에서 System.nanoTime() 으로 넘긴다. (테스트에서 시간을 마음대로 넘길 수 있다.)
+public class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double burst;
+
+    private double tokens;
+    private long lastNanos;
+
+    public TokenBucket(double ratePerSecond, double burst, long nowNanos) {
+        this.tokensPerNano = ratePerSecond / 1_000_000_000d;
+        this.burst = burst;
+        this.tokens = burst;
+        this.lastNanos = nowNanos;
+    }
+
+    // 토큰을 하나 가져가면 0, 모자라면 다음 토큰까지 기다려야 하는 시간(ns)을 돌려준다.
+    public synchronized long tryAcquire(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    public synchronized double available(long nowNanos) {
+        refill(nowNanos);
+        return tokens;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(burst, tokens + elapsed * tokensPerNano);
+            lastNanos = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.sample.common.compression;
+
+import com.example.sample.customer.CustomerConstant;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CompressionProperties.class)
+@ConditionalOnProperty(prefix = "sample.compression", name = "enabled", havingValue = "true")
+public class CompressionConfig {
+
+    @Bean
+    GzipResponseFilter gzipResponseFilter(CompressionProperties properties) {
+        return new GzipResponseFilter(properties);
+    }
+
+    // 고객 API 응답만 압축한다. api-docs 는 OpenApiCacheFilter 가 미리 압축해 둔 것을 내려준다.
+    @Bean
+    FilterRegistrationBean<GzipResponseFilter> gzipResponseFilterRegistration(GzipResponseFilter gzipResponseFilter) {
+        var registration = new FilterRegistrationBean<>(gzipResponseFilter);
+        registration.addUrlPatterns(CustomerConstant.url, CustomerConstant.url + "/*");
+        return registration;
+    }
+
+    @Bean
+    MeterBinder compressionMetrics(GzipResponseFilter gzipResponseFilter) {
+        return registry -> {
+            FunctionCounter.builder("http.compression.responses", gzipResponseFilter, GzipResponseFilter::getGzipResponses)
+                    .description("Responses written through the compression filter")
+                    .tag("encoding", "gzip")
+                    .register(registry);
+            FunctionCounter.builder("http.compression.responses", gzipResponseFilter, GzipResponseFilter::getIdentityResponses)
+                    .description("Responses written through the compression filter")
+                    .tag("encoding", "identity")
+                    .register(registry);
+            FunctionCounter.builder("http.compression.bytes", gzipResponseFilter, GzipResponseFilter::getUncompressedBytes)
+                    .description("Body bytes of gzip responses before and after compression")
+                    .baseUnit("bytes")
+                    .tag("stage", "uncompressed")
+                    .register(registry);
+            FunctionCounter.builder("http.compression.bytes", gzipResponseFilter, GzipResponseFilter::getCompressedBytes)
+                    .description("Body bytes of gzip responses before and after compression")
+                    .baseUnit("bytes")
+                    .tag("stage", "compressed")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.sample.common.compression;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+// sample.compression.* 설정. min-size 보다 작은 응답과 mime-types 에 없는 응답은 압축하지 않는다.
+// level 은 Deflater 압축 레벨(1 ~ 9), buffer-size 는 gzip 한 조각(chunk)의 크기.
+@ConfigurationProperties(prefix = "sample.compression")
+public record CompressionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("2KB") DataSize minSize,
+        @DefaultValue({"application/json", "application/x-ndjson", "application/problem+json"}) List<String> mimeTypes,
+        @DefaultValue("1") int level,
+        @DefaultValue("8KB") DataSize bufferSize
+) {
+}
@@ -0,0 +1,408 @@
+package com.example.sample.common.compression;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+// Accept-Encoding 에 gzip 이 있는 요청의 응답을 쓰는 대로 gzip 으로 압축해서 내보낸다. 본문 전체를 모으지 않고
+// buffer-size 만큼 찰 때마다 압축된 조각이 chunked 로 나가므로, 큰 목록이나 NDJSON 스트림도 메모리를 더 쓰지 않는다.
+// - 2xx 이고 Content-Type 이 mimeTypes 중 하나인 응답만 압축한다.
+// - Content-Length 를 알면 그 값으로, 모르면 처음 minSize 바이트까지 모아 보고 그보다 작으면 압축하지 않는다.
+// - 압축한 응답의 ETag 는 약한 ETag(W/"3") 로 바꾼다. If-None-Match 는 약한 비교라 304 는 그대로 된다.
+//   If-Match 는 강한 비교라 W/ 를 주면 CustomerController 가 412 로 거절한다. 고객 한 명의 응답은 min-size 보다
+//   작아서 압축되지 않으므로 수정에 쓰는 ETag 는 강한 ETag 그대로 나간다.
+// Tomcat 의 server.compression 은 강한 ETag 가 붙은 응답(GET /customer, /customer/{id})을 압축하지 않아서 직접 한다.
+public class GzipResponseFilter extends OncePerRequestFilter {
+
+    private final int minSize;
+    private final Set<String> mimeTypes;
+    private final int level;
+    private final int bufferSize;
+
+    private final LongAdder gzipResponses = new LongAdder();
+    private final LongAdder identityResponses = new LongAdder();
+    private final LongAdder uncompressedBytes = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+
+    public GzipResponseFilter(CompressionProperties properties) {
+        this.minSize = (int) properties.minSize().toBytes();
+        this.mimeTypes = properties.mimeTypes().stream()
+                .map(mimeType -> mimeType.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        this.level = properties.level();
+        this.bufferSize = (int) properties.bufferSize().toBytes();
+    }
+
+    // StreamingResponseBody 처럼 비동기로 쓰는 응답은 async dispatch 가 끝날 때 gzip 을 마무리한다.
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        GzipResponse gzipResponse = WebUtils.getNativeResponse(response, GzipResponse.class);
+        if (gzipResponse == null) {
+            if ("HEAD".equals(request.getMethod())) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            gzipResponse = new GzipResponse(response, acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING)));
+            response = gzipResponse;
+        }
+        filterChain.doFilter(request, response);
+        if (!isAsyncStarted(request)) {
+            gzipResponse.finish();
+        }
+    }
+
+    // "gzip", "gzip;q=0.8", "*" 는 받고 "gzip;q=0" 은 받지 않는다.
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : StringUtils.tokenizeToStringArray(acceptEncoding, ",")) {
+            String[] parts = StringUtils.tokenizeToStringArray(coding, ";");
+            if (parts.length == 0 || !(parts[0].equalsIgnoreCase("gzip") || parts[0].equals("*"))) {
+                continue;
+            }
+            if (parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getGzipResponses() {
+        return gzipResponses.sum();
+    }
+
+    public long getIdentityResponses() {
+        return identityResponses.sum();
+    }
+
+    // 압축한 응답의 압축 전 / 후 바이트 수
+    public long getUncompressedBytes() {
+        return uncompressedBytes.sum();
+    }
+
+    public long getCompressedBytes() {
+        return compressedBytes.sum();
+    }
+
+    private boolean compressibleType(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        int parameters = contentType.indexOf(';');
+        String mimeType = (parameters < 0 ? contentType : contentType.substring(0, parameters)).trim();
+        return mimeTypes.contains(mimeType.toLowerCase(Locale.ROOT));
+    }
+
+    private final class GzipResponse extends HttpServletResponseWrapper {
+
+        private final boolean acceptsGzip;
+        private long contentLength = -1;
+        private GzipOutputStream outputStream;
+        private PrintWriter writer;
+
+        GzipResponse(HttpServletResponse response, boolean acceptsGzip) {
+            super(response);
+            this.acceptsGzip = acceptsGzip;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called");
+            }
+            return stream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (outputStream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called");
+                }
+                writer = new PrintWriter(new OutputStreamWriter(stream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        private GzipOutputStream stream() {
+            if (outputStream == null) {
+                outputStream = new GzipOutputStream(this);
+            }
+            return outputStream;
+        }
+
+        // 압축할지 정하기 전에는 Content-Length 를 내보내지 않고 들고 있는다. 압축하면 길이가 달라진다.
+        @Override
+        public void setContentLength(int len) {
+            setContentLengthLong(len);
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (outputStream != null && outputStream.decided()) {
+                if (!outputStream.gzip) {
+                    super.setContentLengthLong(len);
+                }
+                return;
+            }
+            contentLength = len;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value != null ? Long.parseLong(value) : -1);
+                return;
+            }
+            super.setHeader(name, value);
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+                return;
+            }
+            super.addHeader(name, value);
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value);
+                return;
+            }
+            super.setIntHeader(name, value);
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value);
+                return;
+            }
+            super.addIntHeader(name, value);
+        }
+
+        // 아직 minSize 를 모으는 중이면 커밋하지 않는다. 커밋되면 Content-Encoding 을 붙일 수 없다.
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            } else if (outputStream != null) {
+                outputStream.flush();
+            }
+            if (outputStream == null || outputStream.decided()) {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            if (outputStream != null && !outputStream.decided()) {
+                outputStream.count = 0;
+            }
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            contentLength = -1;
+            if (outputStream != null && !outputStream.decided()) {
+                outputStream.count = 0;
+            }
+        }
+
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (outputStream != null) {
+                outputStream.finish();
+            }
+        }
+
+        boolean compressibleStatus() {
+            int status = getStatus();
+            return status >= 200 && status < 300
+                    && status != HttpStatus.NO_CONTENT.value() && status != HttpStatus.PARTIAL_CONTENT.value();
+        }
+    }
+
+    private final class GzipOutputStream extends ServletOutputStream {
+
+        private final GzipResponse response;
+        private final byte[] buffer;
+        private int count;
+        // 정하기 전에는 null. 압축하면 GZIPOutputStream, 아니면 원래 응답 스트림
+        private OutputStream target;
+        private boolean gzip;
+        private boolean finished;
+
+        GzipOutputStream(GzipResponse response) {
+            this.response = response;
+            this.buffer = new byte[response.acceptsGzip ? minSize : 0];
+        }
+
+        boolean decided() {
+            return target != null;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (target == null && count < buffer.length && response.contentLength < 0) {
+                buffer[count++] = (byte) b;
+                return;
+            }
+            if (target == null) {
+                decide(false);
+            }
+            if (gzip) {
+                uncompressedBytes.increment();
+            }
+            target.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (target == null && count + len <= buffer.length && response.contentLength < 0) {
+                System.arraycopy(b, off, buffer, count, len);
+                count += len;
+                return;
+            }
+            if (target == null) {
+                decide(false);
+            }
+            if (gzip) {
+                uncompressedBytes.add(len);
+            }
+            target.write(b, off, len);
+        }
+
+        // complete 면 본문을 다 받은 상태(count 가 전체 길이)에서 정한다.
+        private void decide(boolean complete) throws IOException {
+            HttpServletResponse servletResponse = (HttpServletResponse) response.getResponse();
+            boolean compressibleType = compressibleType(response.getContentType());
+            if (compressibleType && !response.containsHeader(HttpHeaders.VARY)) {
+                servletResponse.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            long length = response.contentLength >= 0 ? response.contentLength : complete ? count : Long.MAX_VALUE;
+            gzip = response.acceptsGzip && compressibleType && length >= minSize && response.compressibleStatus()
+                    && !response.containsHeader(HttpHeaders.CONTENT_ENCODING) && !response.isCommitted();
+
+            if (gzip) {
+                gzipResponses.increment();
+                servletResponse.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                String eTag = servletResponse.getHeader(HttpHeaders.ETAG);
+                if (eTag != null && !eTag.startsWith("W/")) {
+                    servletResponse.setHeader(HttpHeaders.ETAG, "W/" + eTag);
+                }
+                OutputStream counting = new FilterOutputStream(servletResponse.getOutputStream()) {
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        compressedBytes.add(len);
+                        out.write(b, off, len);
+                    }
+                };
+                target = new GZIPOutputStream(counting, bufferSize, true) {
+                    {
+                        def.setLevel(level);
+                    }
+                };
+                uncompressedBytes.add(count);
+            } else {
+                identityResponses.increment();
+                if (response.contentLength >= 0) {
+                    servletResponse.setContentLengthLong(response.contentLength);
+                }
+                target = servletResponse.getOutputStream();
+            }
+            if (count > 0) {
+                target.write(buffer, 0, count);
+                count = 0;
+            }
+        }
+
+        // 압축 대상이 아니면 바로 내보내고, 압축 대상인데 아직 minSize 를 모으는 중이면 기다린다.
+        // 압축 중이면 지금까지 쓴 만큼을 SYNC_FLUSH 로 한 조각 내보낸다.
+        @Override
+        public void flush() throws IOException {
+            if (target == null) {
+                if (response.acceptsGzip && response.contentLength < 0 && compressibleType(response.getContentType())) {
+                    return;
+                }
+                decide(false);
+            }
+            target.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+        void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (target == null) {
+                if (count == 0 && response.contentLength < 0) {
+                    // 본문이 없는 응답(304 등)은 Tomcat 이 그대로 마무리하게 둔다.
+                    return;
+                }
+                decide(true);
+            }
+            // 압축하지 않은 작은 응답은 여기서 flush 하지 않아야 Tomcat 이 Content-Length 를 붙인다.
+            if (gzip) {
+                ((GZIPOutputStream) target).finish();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return servletOutputStream().isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            servletOutputStream().setWriteListener(writeListener);
+        }
+
+        private ServletOutputStream servletOutputStream() {
+            try {
+                return response.getResponse().getOutputStream();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -1,8 +1,19 @@
 package com.example.sample.common.exception;
 
 // 적합하지 않거나(illegal) 적절하지 못한(inappropriate) 인자
-public class Common400Exception extends IllegalArgumentException {
+// 다른 CommonXXXException 과 같은 writableStackTrace 생성자를 쓰려고 IllegalArgumentException 이 아니라 RuntimeException 을 상속한다.
+public class Common400Exception extends RuntimeException {
     public Common400Exception(String message) {
         super(message);
     }
+
+    private Common400Exception(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    // 스택 트레이스 없이 만든다. 없는 id 조회나 입력 검증 실패처럼 클라이언트 때문에 자주 던지고
+    // 스택을 볼 일이 없는 곳에서 쓴다.
+    public static Common400Exception stackless(String message) {
+        return new Common400Exception(message, false);
+    }
 }
@@ -0,0 +1,9 @@
+package com.example.sample.common.exception;
+
+// 요청한 위치의 자료가 더 이상 남아 있지 않음 (변경 내역이 링 버퍼에서 밀려남 등)
+// 클라이언트가 처음부터 다시 읽으면 되는 상황이라 스택 트레이스를 만들지 않는다.
+public class Common410Exception extends RuntimeException {
+    public Common410Exception(String message) {
+        super(message, null, false, false);
+    }
+}
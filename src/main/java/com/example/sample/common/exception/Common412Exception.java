@@ -0,0 +1,9 @@
+package com.example.sample.common.exception;
+
+// If-Match 로 보낸 버전이 현재 버전과 다름 (다른 요청이 먼저 수정함)
+// 동시 수정이 몰리면 자주 나고 클라이언트가 다시 읽으면 되는 상황이라 스택 트레이스를 만들지 않는다.
+public class Common412Exception extends RuntimeException {
+    public Common412Exception(String message) {
+        super(message, null, false, false);
+    }
+}
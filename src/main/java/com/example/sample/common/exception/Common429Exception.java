@@ -0,0 +1,17 @@
+package com.example.sample.common.exception;
+
+// 클라이언트 또는 엔드포인트의 요청 한도를 넘음. retryAfterSeconds 뒤에는 토큰이 다시 생긴다.
+// 거절은 부하가 높을 때 몰려서 일어나므로 스택 트레이스를 만들지 않는다.
+public class Common429Exception extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public Common429Exception(String message, long retryAfterSeconds) {
+        super(message, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -4,4 +4,13 @@ public class Common500Exception extends RuntimeException {
     public Common500Exception(String message) {
         super(message);
     }
+
+    private Common500Exception(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    // 스택 트레이스 없이 만든다. 원인을 이미 로그로 남긴 뒤 고정된 메시지로 응답만 할 때 쓴다.
+    public static Common500Exception stackless(String message) {
+        return new Common500Exception(message, false);
+    }
 }
@@ -0,0 +1,17 @@
+package com.example.sample.common.exception;
+
+// 동시에 처리 중인 요청이 한도를 넘어서 받지 않음 (load shedding)
+// 거절은 부하가 높을 때 몰려서 일어나므로 스택 트레이스를 만들지 않는다.
+public class Common503Exception extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public Common503Exception(String message, long retryAfterSeconds) {
+        super(message, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,33 +1,112 @@
 package com.example.sample.common.exception;
 
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 서블릿 요청이면 상태 코드 + 메시지별로 미리 만들어 둔 ProblemDetail JSON 에 instance(요청 경로)만 붙여서 쓴다.
+// 메시지는 대부분 CustomerConstant 의 고정 문구라 ProblemDetail 생성과 Jackson 직렬화를 매번 하지 않아도 된다.
+// WebFlux(ReactiveSampleApplication)에는 RequestContextHolder 가 없으므로 ProblemDetail 을 돌려주고 Spring 이 쓰게 한다.
 @ControllerAdvice
 public class CommonAdvice {
 
+    // 입력값이 들어간 메시지가 생겨도 캐시가 끝없이 커지지 않도록 이만큼만 담는다.
+    private static final int maxCachedProblems = 256;
+    private static final byte[] problemSuffix = "\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final Map<ProblemKey, byte[]> problems = new ConcurrentHashMap<>();
+
     @ExceptionHandler(Common400Exception.class)
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    ProblemDetail onException400 (
+    ResponseEntity<?> onException400 (
         Common400Exception exception
     ) {
-        return ProblemDetail.forStatusAndDetail (
-                HttpStatusCode.valueOf(HttpStatus.BAD_REQUEST.value()), exception.getMessage()
-        );
+        return problem(HttpStatus.BAD_REQUEST, exception.getMessage(), ResponseEntity.status(HttpStatus.BAD_REQUEST));
+    }
+
+    @ExceptionHandler(Common410Exception.class)
+    ResponseEntity<?> onException410 (
+            Common410Exception exception
+    ) {
+        return problem(HttpStatus.GONE, exception.getMessage(), ResponseEntity.status(HttpStatus.GONE));
+    }
+
+    @ExceptionHandler(Common412Exception.class)
+    ResponseEntity<?> onException412 (
+            Common412Exception exception
+    ) {
+        return problem(HttpStatus.PRECONDITION_FAILED, exception.getMessage(), ResponseEntity.status(HttpStatus.PRECONDITION_FAILED));
+    }
+
+    @ExceptionHandler(Common429Exception.class)
+    ResponseEntity<?> onException429 (
+            Common429Exception exception
+    ) {
+        return problem(HttpStatus.TOO_MANY_REQUESTS, exception.getMessage(), ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(exception.getRetryAfterSeconds())));
     }
 
     @ExceptionHandler(Common500Exception.class)
-    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
-    ProblemDetail onException500 (
+    ResponseEntity<?> onException500 (
             Common500Exception exception
     ) {
-        return ProblemDetail.forStatusAndDetail(
-                HttpStatusCode.valueOf(HttpStatus.INTERNAL_SERVER_ERROR.value()), exception.getMessage()
-        );
+        return problem(HttpStatus.INTERNAL_SERVER_ERROR, exception.getMessage(), ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR));
+    }
+
+    @ExceptionHandler(Common503Exception.class)
+    ResponseEntity<?> onException503 (
+            Common503Exception exception
+    ) {
+        return problem(HttpStatus.SERVICE_UNAVAILABLE, exception.getMessage(), ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(exception.getRetryAfterSeconds())));
+    }
+
+    private ResponseEntity<?> problem(HttpStatus status, String detail, ResponseEntity.BodyBuilder response) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return response.body(ProblemDetail.forStatusAndDetail(status, detail));
+        }
+        byte[] prefix = problemPrefix(status, detail);
+        byte[] instance = JsonStringEncoder.getInstance().quoteAsUTF8(attributes.getRequest().getRequestURI());
+
+        byte[] body = new byte[prefix.length + instance.length + problemSuffix.length];
+        System.arraycopy(prefix, 0, body, 0, prefix.length);
+        System.arraycopy(instance, 0, body, prefix.length, instance.length);
+        System.arraycopy(problemSuffix, 0, body, prefix.length + instance.length, problemSuffix.length);
+        return response.contentType(MediaType.APPLICATION_PROBLEM_JSON).body(body);
+    }
+
+    // ProblemDetail 을 Jackson 으로 쓴 것과 같은 모양에서 instance 값과 닫는 "} 만 뺀 JSON
+    private byte[] problemPrefix(HttpStatus status, String detail) {
+        ProblemKey key = new ProblemKey(status, detail);
+        byte[] prefix = problems.get(key);
+        if (prefix != null) {
+            return prefix;
+        }
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        StringBuilder json = new StringBuilder(128)
+                .append("{\"type\":\"about:blank\",\"title\":\"").append(encoder.quoteAsString(status.getReasonPhrase()))
+                .append("\",\"status\":").append(status.value());
+        if (detail != null) {
+            json.append(",\"detail\":\"").append(encoder.quoteAsString(detail)).append('"');
+        }
+        prefix = json.append(",\"instance\":\"").toString().getBytes(StandardCharsets.UTF_8);
+        if (problems.size() < maxCachedProblems) {
+            problems.putIfAbsent(key, prefix);
+        }
+        return prefix;
+    }
+
+    private record ProblemKey(HttpStatus status, String detail) {
     }
 
 }
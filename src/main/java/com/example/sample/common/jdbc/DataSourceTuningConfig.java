@@ -0,0 +1,94 @@
+package com.example.sample.common.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+// high-throughput 프로필의 커넥션 풀 크기를 정하고, 시작할 때 실제로 적용된 설정을 한 줄로 남긴다.
+// 풀 크기 = min(CPU 수 * 2 + spindles, db-max-connections / instances)   (HikariCP "About Pool Sizing")
+// spring.datasource.hikari.maximum-pool-size 를 직접 준 경우에는 그 값을 쓴다.
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "sample.datasource-tuning", name = "enabled", havingValue = "true")
+public class DataSourceTuningConfig {
+
+    private static final String planCacheProperty = "spring.jpa.properties.hibernate.query.plan_cache_max_size";
+    private static final String inClausePaddingProperty = "spring.jpa.properties.hibernate.query.in_clause_parameter_padding";
+
+    // PriorityOrdered 라서 replica 라우팅, 커넥션 제한, SQL 로그(모두 Ordered) 보다 먼저 돈다.
+    // 그래서 아직 감싸지 않은 Hikari 풀을 보고, 커넥션 제한은 정해진 풀 크기로 세마포어를 만든다.
+    // 속성 바인딩(spring.datasource.hikari.*)은 초기화 전에 끝나므로 직접 준 maximum-pool-size 도 보인다.
+    @Bean
+    static TuningPostProcessor dataSourceTuningPostProcessor(Environment environment) {
+        return new TuningPostProcessor(environment);
+    }
+
+    static class TuningPostProcessor implements BeanPostProcessor, PriorityOrdered {
+
+        private final Environment environment;
+
+        TuningPostProcessor(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            HikariDataSource hikari = bean instanceof DataSource dataSource ? DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class) : null;
+            if (hikari != null && hikari.getHikariPoolMXBean() == null) {
+                if (hikari.getMaximumPoolSize() <= 0) {
+                    hikari.setMaximumPoolSize(poolSize(environment));
+                }
+                // 요청이 몰릴 때 커넥션을 새로 만들지 않도록 고정 크기 풀로 둔다.
+                if (hikari.getMinimumIdle() < 0) {
+                    hikari.setMinimumIdle(hikari.getMaximumPoolSize());
+                }
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return HIGHEST_PRECEDENCE;
+        }
+    }
+
+    static int poolSize(Environment environment) {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        int spindles = environment.getProperty("sample.datasource-tuning.spindles", Integer.class, 1);
+        int dbMaxConnections = environment.getProperty("sample.datasource-tuning.db-max-connections", Integer.class, 100);
+        int instances = environment.getProperty("sample.datasource-tuning.instances", Integer.class, 1);
+        return Math.max(2, Math.min(cpus * 2 + spindles, dbMaxConnections / instances));
+    }
+
+    @Bean
+    ApplicationListener<ApplicationReadyEvent> dataSourceTuningReport(DataSource dataSource, Environment environment) {
+        return event -> {
+            HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+            if (hikari == null) {
+                return;
+            }
+            log.info("[datasource] pool={} max={} (cpu {} x 2 + {}, db {} / {} instances) minIdle={} connectionTimeout={}ms "
+                            + "driverProperties={} planCache={} inClausePadding={} sqlLog={}",
+                    hikari.getPoolName(), hikari.getMaximumPoolSize(),
+                    Runtime.getRuntime().availableProcessors(),
+                    environment.getProperty("sample.datasource-tuning.spindles", "1"),
+                    environment.getProperty("sample.datasource-tuning.db-max-connections", "100"),
+                    environment.getProperty("sample.datasource-tuning.instances", "1"),
+                    hikari.getMinimumIdle(), hikari.getConnectionTimeout(),
+                    hikari.getDataSourceProperties(),
+                    environment.getProperty(planCacheProperty, "2048"),
+                    environment.getProperty(inClausePaddingProperty, "false"),
+                    environment.getProperty("spring.jpa.show-sql", "false"));
+        };
+    }
+}
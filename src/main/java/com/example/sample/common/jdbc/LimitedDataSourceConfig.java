@@ -0,0 +1,106 @@
+package com.example.sample.common.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "sample.jdbc-limiter", name = "enabled", havingValue = "true")
+public class LimitedDataSourceConfig {
+
+    // 풀이 시작되기 전 maximumPoolSize 는 -1 이고, 이때 Hikari 는 기본값 10 을 사용한다.
+    private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+    // replica 라우팅(ReplicaRoutingConfig)이 켜져 있으면 라우팅이 먼저 primary 와 replica 풀을 각각 감싸므로 여기서는 건너뛴다.
+    // 라우팅 바깥을 감싸면 primary 크기의 세마포어 하나가 replica 커넥션까지 막는다.
+    @Bean
+    static LimitPostProcessor limitedDataSourcePostProcessor(Environment environment) {
+        return new LimitPostProcessor(acquireTimeout(environment));
+    }
+
+    // 라우팅(HIGHEST_PRECEDENCE) 다음, SQL 로그보다 먼저 감싼다.
+    static class LimitPostProcessor implements BeanPostProcessor, Ordered {
+
+        static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+
+        private final Duration acquireTimeout;
+
+        LimitPostProcessor(Duration acquireTimeout) {
+            this.acquireTimeout = acquireTimeout;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && DataSourceUnwrapper.unwrap(dataSource, LimitedDataSource.class) == null
+                    && DataSourceUnwrapper.unwrap(dataSource, ReplicaRoutingDataSource.class) == null) {
+                HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+                if (hikari == null) {
+                    return bean;
+                }
+                return limit(dataSource, hikari, acquireTimeout);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return ORDER;
+        }
+    }
+
+    static boolean isEnabled(Environment environment) {
+        return environment.getProperty("sample.jdbc-limiter.enabled", Boolean.class, false);
+    }
+
+    static Duration acquireTimeout(Environment environment) {
+        return environment.getProperty("sample.jdbc-limiter.acquire-timeout", Duration.class, Duration.ofSeconds(60));
+    }
+
+    // pool 의 크기만큼 permit 을 가진 LimitedDataSource 로 dataSource 를 감싼다.
+    static LimitedDataSource limit(DataSource dataSource, HikariDataSource pool, Duration acquireTimeout) {
+        int poolSize = pool.getMaximumPoolSize() > 0 ? pool.getMaximumPoolSize() : HIKARI_DEFAULT_POOL_SIZE;
+        return new LimitedDataSource(dataSource, poolSize, acquireTimeout);
+    }
+
+    @Bean
+    MeterBinder limitedDataSourceMetrics(DataSource dataSource) {
+        return registry -> {
+            LimitedDataSource limited = DataSourceUnwrapper.unwrap(dataSource, LimitedDataSource.class);
+            if (limited != null) {
+                HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+                bind(registry, limited, hikari != null && hikari.getPoolName() != null ? hikari.getPoolName() : "primary");
+            }
+            ReplicaRoutingDataSource routing = DataSourceUnwrapper.unwrap(dataSource, ReplicaRoutingDataSource.class);
+            if (routing != null) {
+                for (ReplicaRoutingDataSource.Replica replica : routing.getReplicas()) {
+                    if (replica.getTarget() instanceof LimitedDataSource replicaLimited) {
+                        bind(registry, replicaLimited, replica.getName());
+                    }
+                }
+            }
+        };
+    }
+
+    private static void bind(MeterRegistry registry, LimitedDataSource limited, String pool) {
+        Gauge.builder("jdbc.limiter.available", limited, LimitedDataSource::getAvailablePermits)
+                .description("Connection permits that can be taken without waiting")
+                .tag("pool", pool)
+                .register(registry);
+        Gauge.builder("jdbc.limiter.waiting", limited, LimitedDataSource::getQueueLength)
+                .description("Threads waiting for a connection permit")
+                .tag("pool", pool)
+                .register(registry);
+    }
+
+}
@@ -0,0 +1,185 @@
+package com.example.sample.common.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@ConditionalOnProperty(prefix = "sample.replica", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    // 다른 DataSource 래퍼보다 먼저 감싸서, 바깥을 감싸는 SQL 로그가 replica 커넥션에도 적용되게 한다.
+    // 커넥션 제한(LimitedDataSourceConfig)은 라우팅 바깥에 두면 primary 크기의 세마포어 하나가 replica 까지 막으므로,
+    // 켜져 있으면 여기서 primary 와 replica 풀을 각자의 풀 크기만큼 따로 감싼다.
+    // 순서(Ordered)는 빈을 만들기 전에 반환 타입으로 판단하므로 BeanPostProcessor 가 아니라 구현 클래스로 선언한다.
+    @Bean
+    static RoutingPostProcessor replicaRoutingDataSourcePostProcessor(Environment environment) {
+        return new RoutingPostProcessor(environment);
+    }
+
+    static class RoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final List<String> urls;
+        private final String username;
+        private final String password;
+        private final int poolSize;
+        private final ReplicaRoutingDataSource.Strategy strategy;
+        private final Duration maxLag;
+        private final String lagQuery;
+        private final boolean limited;
+        private final Duration acquireTimeout;
+
+        RoutingPostProcessor(Environment environment) {
+            this.urls = Binder.get(environment).bind("sample.replica.urls", Bindable.listOf(String.class)).orElse(List.of());
+            this.username = environment.getProperty("sample.replica.username", environment.getProperty("spring.datasource.username", "sa"));
+            this.password = environment.getProperty("sample.replica.password", environment.getProperty("spring.datasource.password", ""));
+            this.poolSize = environment.getProperty("sample.replica.pool-size", Integer.class, 10);
+            this.strategy = environment.getProperty("sample.replica.strategy", ReplicaRoutingDataSource.Strategy.class,
+                    ReplicaRoutingDataSource.Strategy.ROUND_ROBIN);
+            this.maxLag = environment.getProperty("sample.replica.max-lag", Duration.class, Duration.ofSeconds(5));
+            this.lagQuery = environment.getProperty("sample.replica.lag-query", "select 0");
+            this.limited = LimitedDataSourceConfig.isEnabled(environment);
+            this.acquireTimeout = LimitedDataSourceConfig.acquireTimeout(environment);
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || bean instanceof LazyConnectionDataSourceProxy || urls.isEmpty()) {
+                return bean;
+            }
+            List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+            for (int i = 0; i < urls.size(); i++) {
+                HikariDataSource replica = new HikariDataSource();
+                replica.setPoolName("replica-" + (i + 1));
+                replica.setJdbcUrl(urls.get(i));
+                replica.setUsername(username);
+                replica.setPassword(password);
+                replica.setMaximumPoolSize(poolSize);
+                replica.setReadOnly(true);
+                replicas.add(new ReplicaRoutingDataSource.Replica(replica.getPoolName(), replica,
+                        limited ? LimitedDataSourceConfig.limit(replica, replica, acquireTimeout) : replica));
+            }
+            DataSource primary = dataSource;
+            HikariDataSource primaryPool = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+            if (limited && primaryPool != null) {
+                primary = LimitedDataSourceConfig.limit(dataSource, primaryPool, acquireTimeout);
+            }
+            return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replicas, strategy, maxLag, lagQuery));
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    // replica 풀마다 hikaricp.connections.* (pool=replica-N) 와 라우팅 결과, 지연을 기록한다.
+    // 풀이 시작되기 전에 setMetricRegistry 해야 하므로 lag 확인보다 먼저 바인딩된다.
+    @Bean
+    MeterBinder replicaRoutingMetrics(DataSource dataSource) {
+        return registry -> {
+            ReplicaRoutingDataSource routing = DataSourceUnwrapper.unwrap(dataSource, ReplicaRoutingDataSource.class);
+            if (routing == null) {
+                return;
+            }
+            FunctionCounter.builder("jdbc.routing.connections", routing, ReplicaRoutingDataSource::getPrimaryConnections)
+                    .description("Connections handed out per routing target")
+                    .tag("target", "primary")
+                    .register(registry);
+            FunctionCounter.builder("jdbc.routing.fallbacks", routing, ReplicaRoutingDataSource::getFallbacks)
+                    .description("Read-only connections sent to the primary because no replica was usable")
+                    .register(registry);
+            for (ReplicaRoutingDataSource.Replica replica : routing.getReplicas()) {
+                if (replica.getDataSource().getHikariPoolMXBean() == null) {
+                    replica.getDataSource().setMetricRegistry(registry);
+                }
+                FunctionCounter.builder("jdbc.routing.connections", replica, ReplicaRoutingDataSource.Replica::getConnections)
+                        .description("Connections handed out per routing target")
+                        .tag("target", replica.getName())
+                        .register(registry);
+                Gauge.builder("jdbc.replica.lag", replica, ReplicaRoutingDataSource.Replica::getLagMillis)
+                        .description("Replication lag reported by the lag query, -1 when the check failed")
+                        .baseUnit("milliseconds")
+                        .tag("replica", replica.getName())
+                        .register(registry);
+                Gauge.builder("jdbc.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                        .tag("replica", replica.getName())
+                        .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    ReplicaLagMonitor replicaLagMonitor(DataSource dataSource, Environment environment) {
+        Duration checkInterval = environment.getProperty("sample.replica.check-interval", Duration.class, Duration.ofSeconds(1));
+        return new ReplicaLagMonitor(DataSourceUnwrapper.unwrap(dataSource, ReplicaRoutingDataSource.class), checkInterval);
+    }
+
+    // check-interval 마다 replica 지연을 확인하고, 종료할 때 replica 풀을 닫는다.
+    static class ReplicaLagMonitor implements SmartLifecycle {
+
+        private final ReplicaRoutingDataSource routing;
+        private final Duration checkInterval;
+        private ScheduledExecutorService scheduler;
+
+        ReplicaLagMonitor(ReplicaRoutingDataSource routing, Duration checkInterval) {
+            this.routing = routing;
+            this.checkInterval = checkInterval;
+        }
+
+        @Override
+        public void start() {
+            if (routing == null) {
+                return;
+            }
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "replica-lag-monitor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            routing.checkReplicas();
+            scheduler.scheduleWithFixedDelay(routing::checkReplicas,
+                    checkInterval.toMillis(), checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void stop() {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+                scheduler = null;
+                routing.close();
+            }
+        }
+
+        @Override
+        public boolean isRunning() {
+            return scheduler != null;
+        }
+
+        // 웹 서버와 write-behind 큐가 멈춘 뒤에 replica 풀을 닫는다.
+        @Override
+        public int getPhase() {
+            return Integer.MAX_VALUE - 3;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.sample.common.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// readOnly 트랜잭션의 커넥션은 복제본(replica) 풀에서, 나머지는 primary 에서 가져온다.
+// 트랜잭션 시작 시점에는 아직 readOnly 표시가 없으므로 반드시 LazyConnectionDataSourceProxy 로 감싸서
+// 첫 SQL 을 실행할 때 커넥션을 고르게 한다.
+// 복제 지연(lag)이 maxLag 를 넘거나 lag 확인이 실패한 replica 는 다음 확인 때까지 빼고,
+// 쓸 수 있는 replica 가 없으면 primary 에서 읽는다.
+// primary 에 위임하는 DelegatingDataSource 라서 DataSourceUnwrapper 가 primary 풀(Boot 의 Hikari 지표)과
+// 그 앞의 LimitedDataSource 를 찾을 수 있다.
+@Slf4j
+public class ReplicaRoutingDataSource extends DelegatingDataSource implements Closeable {
+
+    public enum Strategy {
+        ROUND_ROBIN, LEAST_CONNECTIONS
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Strategy strategy;
+    private final long maxLagMillis;
+    private final String lagQuery;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong primaryConnections = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, Strategy strategy, Duration maxLag, String lagQuery) {
+        super(primary);
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.strategy = strategy;
+        this.maxLagMillis = maxLag.toMillis();
+        this.lagQuery = lagQuery;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            Replica replica = choose();
+            if (replica != null) {
+                try {
+                    return replica.getConnection();
+                } catch (SQLException e) {
+                    log.warn("replica {} 커넥션 실패, primary 로 읽습니다.", replica.name, e);
+                    replica.healthy = false;
+                }
+            }
+            fallbacks.incrementAndGet();
+        }
+        primaryConnections.incrementAndGet();
+        return primary.getConnection();
+    }
+
+    // 계정을 직접 주면 replica 풀의 계정과 맞는지 알 수 없으므로 readOnly 여부와 관계없이 DelegatingDataSource 처럼 primary 에 넘긴다.
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        primaryConnections.incrementAndGet();
+        return primary.getConnection(username, password);
+    }
+
+    private Replica choose() {
+        int size = replicas.size();
+        if (strategy == Strategy.LEAST_CONNECTIONS) {
+            Replica best = null;
+            int bestActive = Integer.MAX_VALUE;
+            for (Replica replica : replicas) {
+                int active = replica.activeConnections();
+                if (replica.healthy && active < bestActive) {
+                    best = replica;
+                    bestActive = active;
+                }
+            }
+            return best;
+        }
+        int start = next.getAndIncrement() & Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    // 주기적으로 불러서 replica 마다 lagQuery (지연 밀리초를 돌려주는 SQL) 로 지연을 확인한다.
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.healthy;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(1);
+                try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                    replica.lagMillis = resultSet.next() ? resultSet.getLong(1) : 0;
+                }
+                replica.healthy = replica.lagMillis <= maxLagMillis;
+            } catch (SQLException | RuntimeException e) {
+                replica.lagMillis = -1;
+                replica.healthy = false;
+            }
+            if (wasHealthy != replica.healthy) {
+                log.warn("replica {} {} (lag {}ms, 허용 {}ms)",
+                        replica.name, replica.healthy ? "복구" : "제외", replica.lagMillis, maxLagMillis);
+            }
+        }
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public long getPrimaryConnections() {
+        return primaryConnections.get();
+    }
+
+    // readOnly 인데 쓸 수 있는 replica 가 없어서 primary 로 보낸 수
+    public long getFallbacks() {
+        return fallbacks.get();
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    public static class Replica {
+
+        private final String name;
+        private final HikariDataSource dataSource;
+        private final DataSource target;
+        private final AtomicLong connections = new AtomicLong();
+        private volatile boolean healthy = true;
+        private volatile long lagMillis;
+
+        public Replica(String name, HikariDataSource dataSource) {
+            this(name, dataSource, dataSource);
+        }
+
+        // target 은 라우팅이 커넥션을 빌리는 곳이다. 풀을 감싼 래퍼(LimitedDataSource)를 넘길 수 있다.
+        // lag 확인과 풀 지표, 종료는 dataSource(풀)에 직접 한다.
+        public Replica(String name, HikariDataSource dataSource, DataSource target) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.target = target;
+        }
+
+        Connection getConnection() throws SQLException {
+            Connection connection = target.getConnection();
+            connections.incrementAndGet();
+            return connection;
+        }
+
+        int activeConnections() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool != null ? pool.getActiveConnections() : 0;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public HikariDataSource getDataSource() {
+            return dataSource;
+        }
+
+        public DataSource getTarget() {
+            return target;
+        }
+
+        public long getConnections() {
+            return connections.get();
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public long getLagMillis() {
+            return lagMillis;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.sample.common.jdbc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// show_sql / format_sql 대신 쓰는 가벼운 SQL 로그.
+// 실행 시간이 slowThreshold 를 넘은 SQL 만 호출한 메서드와 함께 WARN 으로 남기고,
+// 나머지는 sampleEvery 건마다 한 건씩만 INFO 로 남긴다.
+@Slf4j
+public class SqlLoggingDataSource extends DelegatingDataSource {
+
+    private final long slowThresholdNanos;
+    private final long sampleEvery;
+    private final String callerPrefix;
+    private final AtomicLong executions = new AtomicLong();
+
+    public SqlLoggingDataSource(DataSource target, Duration slowThreshold, long sampleEvery, String callerPrefix) {
+        super(target);
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.sampleEvery = sampleEvery;
+        this.callerPrefix = callerPrefix;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return logging(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return logging(super.getConnection(username, password));
+    }
+
+    private Connection logging(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement statement && method.getName().startsWith("prepare")) {
+                        return logging(statement, (String) args[0]);
+                    }
+                    if (result instanceof Statement statement) {
+                        return logging(statement, null);
+                    }
+                    return result;
+                }
+        );
+    }
+
+    private Statement logging(Statement statement, String preparedSql) {
+        return (Statement) Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[]{statementType(statement)},
+                (proxy, method, args) -> {
+                    if (!method.getName().startsWith("execute")) {
+                        return invoke(statement, method, args);
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        String sql = preparedSql;
+                        if (sql == null) {
+                            sql = args != null && args.length > 0 ? String.valueOf(args[0]) : method.getName();
+                        }
+                        log(sql, System.nanoTime() - start);
+                    }
+                }
+        );
+    }
+
+    private void log(String sql, long elapsedNanos) {
+        if (elapsedNanos >= slowThresholdNanos) {
+            log.warn("slow query {} ms in {} : {}", elapsedNanos / 1_000_000, caller(), sql);
+        } else if (sampleEvery > 0 && executions.incrementAndGet() % sampleEvery == 0) {
+            log.info("sampled query {} ms : {}", elapsedNanos / 1_000_000, sql);
+        }
+    }
+
+    // 느린 쿼리일 때만 스택을 훑어서 호출한 서비스 메서드를 찾는다.
+    private String caller() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(callerPrefix) && !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1) + "." + frame.getMethodName())
+                .orElse("unknown"));
+    }
+
+    // PreparedStatement / CallableStatement 타입을 그대로 유지한다.
+    private static Class<?> statementType(Statement statement) {
+        if (statement instanceof CallableStatement) {
+            return CallableStatement.class;
+        }
+        if (statement instanceof PreparedStatement) {
+            return PreparedStatement.class;
+        }
+        return Statement.class;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.sample.common.jdbc;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "sample.sql-log", name = "enabled", havingValue = "true")
+public class SqlLoggingDataSourceConfig {
+
+    @Bean
+    static LoggingPostProcessor sqlLoggingDataSourcePostProcessor(Environment environment) {
+        return new LoggingPostProcessor(
+                environment.getProperty("sample.sql-log.slow-threshold", Duration.class, Duration.ofMillis(200)),
+                environment.getProperty("sample.sql-log.sample-every", Long.class, 0L),
+                environment.getProperty("sample.sql-log.caller-prefix", "com.example.sample.customer.")
+        );
+    }
+
+    // 라우팅과 커넥션 제한보다 뒤에 돌아 가장 바깥을 감싼다. replica 커넥션의 SQL 도 남는다.
+    static class LoggingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Duration slowThreshold;
+        private final long sampleEvery;
+        private final String callerPrefix;
+
+        LoggingPostProcessor(Duration slowThreshold, long sampleEvery, String callerPrefix) {
+            this.slowThreshold = slowThreshold;
+            this.sampleEvery = sampleEvery;
+            this.callerPrefix = callerPrefix;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof SqlLoggingDataSource)) {
+                return new SqlLoggingDataSource(dataSource, slowThreshold, sampleEvery, callerPrefix);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return LimitedDataSourceConfig.LimitPostProcessor.ORDER + 10;
+        }
+    }
+
+}
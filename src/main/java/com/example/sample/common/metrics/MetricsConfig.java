@@ -0,0 +1,34 @@
+package com.example.sample.common.metrics;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+
+@Configuration
+public class MetricsConfig {
+
+    // CustomerService 의 @Timed 메서드 시간 측정
+    @Bean
+    TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+
+    // MappedInterceptor 빈은 Spring MVC 가 모든 핸들러에 자동으로 적용한다.
+    @Bean
+    MappedInterceptor sqlCountInterceptor(
+            MeterRegistry meterRegistry,
+            @Value("${sample.metrics.sql-warn-threshold:10}") int sqlWarnThreshold
+    ) {
+        return new MappedInterceptor(null, new SqlCountInterceptor(meterRegistry, sqlWarnThreshold));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.sample.common.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+// 핸들러 하나가 실행한 SQL 문 수를 기록하고, 기준치를 넘으면 (N+1 의심) 경고를 남긴다.
+// 비동기 요청(DeferredResult, StreamingResponseBody, SseEmitter)은 처음 디스패치가 끝날 때 afterCompletion 대신
+// afterConcurrentHandlingStarted 가 불린다. 그때까지 센 수를 요청 속성에 옮기고 스레드를 비워서, 톰캣 스레드에
+// 카운터가 남지 않게 하고 마지막 디스패치의 afterCompletion 에서 합쳐 기록한다.
+// 비동기 작업 스레드(스트리밍 등)에서 실행한 SQL 은 세지 않는다.
+@Slf4j
+public class SqlCountInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String COUNT_ATTRIBUTE = SqlCountInterceptor.class.getName() + ".count";
+
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+
+    public SqlCountInterceptor(MeterRegistry meterRegistry, int warnThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object carried = request.getAttribute(COUNT_ATTRIBUTE);
+        if (carried != null) {
+            request.removeAttribute(COUNT_ATTRIBUTE);
+        }
+        SqlStatementCounter.start(carried instanceof Integer count ? count : 0);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(COUNT_ATTRIBUTE, SqlStatementCounter.finish());
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        int count = SqlStatementCounter.finish();
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        String name = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        DistributionSummary.builder("http.server.requests.sql")
+                .description("SQL statements executed per request")
+                .baseUnit("statements")
+                .tag("handler", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(count);
+        if (count > warnThreshold) {
+            log.warn("{} executed {} SQL statements (threshold {}) : {} {}",
+                    name, count, warnThreshold, request.getMethod(), request.getRequestURI());
+        }
+    }
+}
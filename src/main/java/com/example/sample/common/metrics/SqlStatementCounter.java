@@ -0,0 +1,34 @@
+package com.example.sample.common.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// 요청 스레드에서 Hibernate 가 준비한 SQL 문 수를 센다.
+// start() ~ finish() 사이에서만 세고, 그 밖(배치 작업, 스트리밍 스레드 등)에서는 무시한다.
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    public static void start() {
+        start(0);
+    }
+
+    // 비동기 요청은 디스패치마다 스레드가 바뀌므로 앞 디스패치에서 센 수부터 이어서 센다.
+    public static void start(int initial) {
+        COUNT.set(new int[]{initial});
+    }
+
+    public static int finish() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? 0 : count[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
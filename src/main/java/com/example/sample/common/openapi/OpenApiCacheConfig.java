@@ -0,0 +1,75 @@
+package com.example.sample.common.openapi;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.servers.Server;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "sample.openapi-cache.enabled", matchIfMissing = true)
+public class OpenApiCacheConfig {
+
+    private final String apiDocsPath;
+    private final boolean warmUp;
+
+    public OpenApiCacheConfig(
+            @Value("${springdoc.api-docs.path:/v3/api-docs}") String apiDocsPath,
+            @Value("${sample.openapi-cache.warm-up:true}") boolean warmUp
+    ) {
+        this.apiDocsPath = apiDocsPath;
+        this.warmUp = warmUp;
+    }
+
+    // 서버 주소를 상대 경로로 고정해서, 처음 요청한 호스트가 캐시된 문서에 박히지 않도록 한다.
+    @Bean
+    OpenAPI openAPI() {
+        return new OpenAPI().servers(List.of(new Server().url("/")));
+    }
+
+    @Bean
+    FilterRegistrationBean<OpenApiCacheFilter> openApiCacheFilter(
+            @Value("${sample.openapi-cache.asset-max-age:7d}") Duration assetMaxAge
+    ) {
+        var registration = new FilterRegistrationBean<>(new OpenApiCacheFilter(apiDocsPath, assetMaxAge.toSeconds()));
+        registration.addUrlPatterns(apiDocsPath, apiDocsPath + ".yaml", "/swagger-ui/*");
+        return registration;
+    }
+
+    // ApplicationReadyEvent 는 readiness 가 ACCEPTING_TRAFFIC 로 바뀌기 전에 발행되므로,
+    // 여기서 문서를 한 번 만들어 두면 첫 외부 요청이 springdoc 스캔 비용을 치르지 않는다.
+    // fast-start 프로필처럼 springdoc 을 지연 생성할 때는 warm-up 을 끈다.
+    @EventListener
+    public void warmUp(ApplicationReadyEvent event) {
+        if (!warmUp || !(event.getApplicationContext() instanceof WebServerApplicationContext context) || context.getWebServer() == null) {
+            return;
+        }
+        String contextPath = context.getEnvironment().getProperty("server.servlet.context-path", "");
+        String baseUrl = "http://localhost:" + context.getWebServer().getPort() + contextPath;
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        long start = System.nanoTime();
+        for (String path : List.of(apiDocsPath, apiDocsPath + ".yaml")) {
+            try {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).build();
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+            } catch (Exception e) {
+                log.warn("api-docs 미리 생성 실패 - {}", path, e);
+            }
+        }
+        log.info("api-docs 미리 생성 완료 - {}ms", (System.nanoTime() - start) / 1_000_000);
+    }
+}
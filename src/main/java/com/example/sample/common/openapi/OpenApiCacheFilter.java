@@ -0,0 +1,106 @@
+package com.example.sample.common.openapi;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+// springdoc 이 만든 api-docs 응답을 한 번만 받아 두고, 이후에는 메모리에서 바로 내려준다.
+// 원본과 gzip 으로 미리 압축한 바이트를 함께 들고 있고, 각각 ETag 를 붙여 304 도 처리한다.
+// swagger-ui 정적 파일에는 오래 가는 Cache-Control 을 붙인다.
+@Slf4j
+public class OpenApiCacheFilter extends OncePerRequestFilter {
+
+    private final String apiDocsPath;
+    private final String assetCacheControl;
+    private final Map<String, Document> documents = new ConcurrentHashMap<>();
+
+    public OpenApiCacheFilter(String apiDocsPath, long assetMaxAgeSeconds) {
+        this.apiDocsPath = apiDocsPath;
+        this.assetCacheControl = "public, max-age=" + assetMaxAgeSeconds;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        if (path.startsWith("/swagger-ui/")) {
+            // index.html 과 swagger-initializer.js 는 설정에 따라 바뀌므로 매번 확인한다.
+            boolean dynamic = path.endsWith("/index.html") || path.endsWith("/swagger-initializer.js");
+            response.setHeader(HttpHeaders.CACHE_CONTROL, dynamic ? "no-cache" : assetCacheControl);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!"GET".equals(request.getMethod()) || !(path.equals(apiDocsPath) || path.equals(apiDocsPath + ".yaml"))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Document document = documents.get(path);
+        if (document == null) {
+            ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+            filterChain.doFilter(request, wrapper);
+            if (wrapper.getStatus() != HttpStatus.OK.value()) {
+                wrapper.copyBodyToResponse();
+                return;
+            }
+            document = Document.of(wrapper.getContentAsByteArray(), wrapper.getContentType());
+            if (documents.putIfAbsent(path, document) == null) {
+                log.info("api-docs 캐시 생성 - {} ({} bytes, gzip {} bytes)", path, document.body.length, document.gzipBody.length);
+            }
+        }
+        write(document, request, response);
+    }
+
+    private void write(Document document, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        byte[] body = gzip ? document.gzipBody : document.body;
+        String eTag = gzip ? document.gzipETag : document.eTag;
+
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        if (new ServletWebRequest(request, response).checkNotModified(eTag)) {
+            return;
+        }
+        response.setContentType(document.contentType);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private record Document(byte[] body, byte[] gzipBody, String contentType, String eTag, String gzipETag) {
+
+        static Document of(byte[] body, String contentType) {
+            String hash = DigestUtils.md5DigestAsHex(body);
+            return new Document(body, gzip(body), contentType, "\"" + hash + "\"", "\"" + hash + "-gzip\"");
+        }
+
+        private static byte[] gzip(byte[] body) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+    }
+}
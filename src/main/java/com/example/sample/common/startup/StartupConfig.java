@@ -0,0 +1,31 @@
+package com.example.sample.common.startup;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+public class StartupConfig {
+
+    // spring.main.lazy-initialization=true 일 때 springdoc / actuator 빈만 지연 생성하고
+    // 나머지(JPA, 컨트롤러, 서비스 등)는 그대로 기동 시 만들어서 첫 요청이 느려지지 않게 한다.
+    @Bean
+    static LazyInitializationExcludeFilter eagerExceptDocsAndActuator() {
+        return (beanName, beanDefinition, beanType) -> beanType == null || !isLazy(beanType.getName());
+    }
+
+    private static boolean isLazy(String className) {
+        return className.startsWith("org.springdoc.")
+                || className.startsWith("org.springframework.boot.actuate.");
+    }
+
+    // Filter 빈이므로 모든 요청에 자동 등록되고, ApplicationReadyEvent 도 함께 받는다.
+    // 기동 시간을 재는 fast-start 프로필에서만 만든다. 다른 프로필에서 exit-after-start 가 켜져 서버가 내려가는 일이 없게 한다.
+    @Bean
+    @Profile("fast-start")
+    StartupReport startupReport(@Value("${sample.startup.exit-after-start:false}") boolean exitAfterStart) {
+        return new StartupReport(exitAfterStart);
+    }
+}
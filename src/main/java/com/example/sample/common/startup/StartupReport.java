@@ -0,0 +1,65 @@
+package com.example.sample.common.startup;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 기동 시간 리포트: JVM 시작부터 ready 까지, 그리고 첫 요청 응답까지 걸린 시간을 한 줄씩 남긴다.
+// sample.startup.exit-after-start=true 면 ready 직후 종료한다(CDS 아카이브 학습 실행용).
+@Slf4j
+public class StartupReport extends OncePerRequestFilter implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final boolean exitAfterStart;
+    private final AtomicBoolean firstRequest = new AtomicBoolean(true);
+
+    public StartupReport(boolean exitAfterStart) {
+        this.exitAfterStart = exitAfterStart;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        log.info("[startup] jvm->ready {}ms (spring {}ms, aot={}, lazy={}, cds={})",
+                uptime(),
+                event.getTimeTaken().toMillis(),
+                System.getProperty("spring.aot.enabled", "false"),
+                event.getApplicationContext().getEnvironment().getProperty("spring.main.lazy-initialization", "false"),
+                cds());
+        if (exitAfterStart) {
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (!firstRequest.get() || !firstRequest.compareAndSet(true, false)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            log.info("[startup] jvm->first response {}ms ({} {} {}ms)",
+                    uptime(), request.getMethod(), request.getRequestURI(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private static long uptime() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    private static boolean cds() {
+        return ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile"));
+    }
+}
@@ -7,20 +7,33 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Getter
-@Table(name = "customer_tb")
+@Table(name = "customer_tb", indexes = {
+        @Index(name = "customer_tel_uk", columnList = "tel", unique = true),
+        @Index(name = "customer_name_idx", columnList = "name")
+})
 @Entity
 @Setter
 @NoArgsConstructor @AllArgsConstructor
 public class Customer {
 
+    // IDENTITY 는 insert 를 배치로 묶을 수 없어서 pooled 시퀀스를 사용한다.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = CustomerConstant.sequenceName)
+    @SequenceGenerator(name = CustomerConstant.sequenceName, sequenceName = CustomerConstant.sequenceName, allocationSize = CustomerConstant.idAllocationSize)
     private Long id;
 
     private String name;
 
     private String tel;
 
+    // 수정될 때마다 1씩 증가하고, 응답의 ETag 로 쓴다.
+    @Version
+    private long version;
+
+    public Customer(Long id, String name, String tel) {
+        this(id, name, tel, 0L);
+    }
+
     public CustomerDTO toDTO() {
         return new CustomerDTO(id, name, tel);
     }
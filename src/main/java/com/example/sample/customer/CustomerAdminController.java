@@ -0,0 +1,83 @@
+package com.example.sample.customer;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+
+// 인증 없이 고객 전체를 내려받고 덮어쓸 수 있으므로 기본은 끄고, 내부망에서만 sample.transfer.admin.enabled=true 로 켠다.
+@RestController
+@ConditionalOnProperty(name = "sample.transfer.admin.enabled", havingValue = "true")
+@RequestMapping(CustomerConstant.adminUrl)
+@Tag(name = CustomerConstant.adminName, description = CustomerConstant.adminDescription)
+public class CustomerAdminController {
+
+    private static final String GZIP = "application/gzip";
+
+    private final CustomerTransferService customerTransferService;
+
+    public CustomerAdminController(CustomerTransferService customerTransferService) {
+        this.customerTransferService = customerTransferService;
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "고객 전체 내보내기", description = "고객 전체를 id 순서로 gzip 압축한 CSV(csv) 또는 바이너리(bin) 파일로 내려받습니다.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(mediaType = GZIP)
+            ),
+            @ApiResponse(responseCode = "500", description = "INTERNAL SERVER ERROR",
+                    content = @Content(
+                            schema = @Schema(implementation = ProblemDetail.class)
+                    )
+            ),
+    })
+    public ResponseEntity<StreamingResponseBody> exportCustomers(
+            @Parameter(name = "format", description = "파일 형식 (csv, bin)", in = ParameterIn.QUERY) @RequestParam(defaultValue = "csv") CustomerTransferFormat format
+    ) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(GZIP))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(format.fileName()).build().toString())
+                .body(outputStream -> customerTransferService.exportCustomers(format, outputStream));
+    }
+
+    @PostMapping(value = "/import", consumes = {GZIP, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @Operation(summary = "고객 가져오기", description = "내보내기로 받은 파일을 그대로 올려 고객을 배치 insert 합니다. id 는 파일 값을 그대로 씁니다.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(
+                            schema = @Schema(implementation = CustomerTransferDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "BAD REQUEST",
+                    content = @Content(
+                            schema = @Schema(implementation = ProblemDetail.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "500", description = "INTERNAL SERVER ERROR",
+                    content = @Content(
+                            schema = @Schema(implementation = ProblemDetail.class)
+                    )
+            ),
+    })
+    public CustomerTransferDTO importCustomers(
+            @Parameter(name = "format", description = "파일 형식 (csv, bin)", in = ParameterIn.QUERY) @RequestParam(defaultValue = "csv") CustomerTransferFormat format,
+            InputStream body
+    ) {
+        return customerTransferService.importCustomers(format, body);
+    }
+}
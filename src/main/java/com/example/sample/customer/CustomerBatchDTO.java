@@ -0,0 +1,40 @@
+package com.example.sample.customer;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "고객 일괄 저장 결과")
+@Getter
+public class CustomerBatchDTO {
+
+    @Schema(description = "저장된 고객 수", example = "998")
+    private int saved;
+
+    @Schema(description = "저장하지 못한 항목")
+    private final List<ItemError> errors = new ArrayList<>();
+
+    void saved(int count) {
+        saved += count;
+    }
+
+    void fail(int index, String message) {
+        errors.add(new ItemError(index, message));
+    }
+
+    @Getter @AllArgsConstructor
+    @Schema(description = "일괄 저장 실패 항목")
+    public static class ItemError {
+
+        @Schema(description = "요청 내 항목 순번 (0부터 시작)", example = "3")
+        private int index;
+
+        @Schema(description = "실패 사유", example = "이름을 입력해주세요.")
+        private String message;
+
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.example.sample.customer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+// customer 캐시는 version 이 낮은 값으로 덮어쓰지 않는다.
+// 조회(@Cacheable)는 DB 에서 읽은 뒤 한참 있다가 캐시에 넣을 수 있다. 그 사이 write-behind flush 나 PUT 이
+// 올라간 version 을 넣었다면 늦게 도착한 조회 결과가 새 값을 덮어써서 오래된 고객이 캐시에 남는다.
+// CacheManager 를 직접 만들면 Boot 의 캐시 자동 설정이 빠지므로 spring.cache.* 의 이름과 spec 은 여기서 읽는다.
+@Configuration
+public class CustomerCacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${spring.cache.cache-names:" + CustomerConstant.cacheName + "}") List<String> cacheNames,
+            @Value("${spring.cache.caffeine.spec:}") String spec
+    ) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                if (CustomerConstant.cacheName.equals(name)) {
+                    return new VersionedCache(name, cache, isAllowNullValues());
+                }
+                return super.adaptCaffeineCache(name, cache);
+            }
+        };
+        if (!spec.isBlank()) {
+            cacheManager.setCacheSpecification(spec);
+        }
+        cacheManager.setCacheNames(cacheNames);
+        return cacheManager;
+    }
+
+    // CaffeineCache 를 상속해야 Boot 가 cache.gets 같은 Caffeine 캐시 지표를 그대로 붙인다.
+    static class VersionedCache extends CaffeineCache {
+
+        VersionedCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache, boolean allowNullValues) {
+            super(name, cache, allowNullValues);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            if (!(value instanceof CustomerSnapshot customer)) {
+                super.put(key, value);
+                return;
+            }
+            getNativeCache().asMap().merge(key, customer, (cached, updated) ->
+                    cached instanceof CustomerSnapshot old && old.version() > customer.version() ? cached : updated);
+        }
+    }
+}
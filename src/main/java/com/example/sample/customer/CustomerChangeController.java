@@ -0,0 +1,133 @@
+package com.example.sample.customer;
+
+import com.example.sample.common.exception.Common400Exception;
+import com.example.sample.common.exception.Common410Exception;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 고객 변경 피드. 다운스트림이 전체 목록을 주기적으로 다시 읽는 대신 since 이후의 변경만 받아 간다.
+// long-poll 은 변경이 없으면 wait 초 동안 서블릿 스레드를 놓고 기다리다가 변경이 기록되는 즉시 응답한다.
+@RestController
+@RequestMapping(CustomerConstant.changesUrl)
+@Tag(name = CustomerConstant.name, description = CustomerConstant.description)
+public class CustomerChangeController {
+
+    private static final int maxWaitSeconds = 60;
+
+    private final CustomerChangeLog changeLog;
+    private final CustomerChangeStream changeStream;
+
+    public CustomerChangeController(CustomerChangeLog changeLog, CustomerChangeStream changeStream) {
+        this.changeLog = changeLog;
+        this.changeStream = changeStream;
+    }
+
+    @GetMapping
+    @Operation(summary = "고객 변경 조회 (long-poll)",
+            description = "since 이후의 고객 저장 / 수정 / 삭제를 seq 순서로 limit 건 조회합니다. 변경이 없으면 wait 초까지 기다립니다. "
+                    + "응답의 next 를 다음 요청의 since 로 사용합니다. since 없이 부르면 지금의 next 만 돌려줍니다.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(
+                            schema = @Schema(implementation = CustomerChangesDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "BAD REQUEST",
+                    content = @Content(
+                            schema = @Schema(implementation = ProblemDetail.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "410", description = "GONE - since 이후의 변경 내역이 남아 있지 않음",
+                    content = @Content(
+                            schema = @Schema(implementation = ProblemDetail.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "503", description = "SERVICE UNAVAILABLE",
+                    content = @Content(
+                            schema = @Schema(implementation = ProblemDetail.class)
+                    )
+            ),
+    })
+    public DeferredResult<CustomerChangesDTO> getChanges(
+            @Parameter(name = "since", description = "이전 응답의 next", in = ParameterIn.QUERY) @RequestParam(required = false) Long since,
+            @Parameter(name = "limit", description = "조회할 변경 수 (1 ~ 1000)", in = ParameterIn.QUERY) @RequestParam(defaultValue = "100") int limit,
+            @Parameter(name = "wait", description = "변경이 없을 때 기다릴 초 (0 ~ 60)", in = ParameterIn.QUERY) @RequestParam(defaultValue = "30") int wait
+    ) {
+        if (limit < 1 || limit > CustomerConstant.maxPageSize) {
+            throw Common400Exception.stackless(CustomerConstant.limitMessage);
+        }
+        if (wait < 0 || wait > maxWaitSeconds) {
+            throw Common400Exception.stackless(CustomerConstant.changesWaitMessage);
+        }
+        DeferredResult<CustomerChangesDTO> result = new DeferredResult<>(TimeUnit.SECONDS.toMillis(wait));
+        if (since == null) {
+            result.setResult(new CustomerChangesDTO(List.of(), changeLog.getLastSeq()));
+            return result;
+        }
+        CustomerChangesDTO changes = changeLog.read(since, limit);
+        if (!changes.getChanges().isEmpty() || wait == 0) {
+            result.setResult(changes);
+            return result;
+        }
+
+        Runnable listener = () -> {
+            if (result.isSetOrExpired() || changeLog.getLastSeq() <= since) {
+                return;
+            }
+            try {
+                result.setResult(changeLog.read(since, limit));
+            } catch (Common410Exception e) {
+                result.setErrorResult(e);
+            }
+        };
+        result.onTimeout(() -> result.setResult(new CustomerChangesDTO(List.of(), since)));
+        result.onCompletion(() -> changeLog.removeListener(listener));
+        changeLog.addListener(listener);
+        // read 와 addListener 사이에 기록된 변경은 알림을 못 받았으므로 한 번 직접 확인한다.
+        listener.run();
+        return result;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "고객 변경 구독 (SSE)",
+            description = "since(또는 Last-Event-ID) 이후의 고객 변경을 change 이벤트로 계속 보냅니다. 이벤트 id 는 seq 입니다. "
+                    + "내역이 밀려나 이어서 보낼 수 없으면 reset 이벤트를 보내고 끊습니다.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = CustomerChangeDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "410", description = "GONE - since 이후의 변경 내역이 남아 있지 않음",
+                    content = @Content(
+                            schema = @Schema(implementation = ProblemDetail.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "503", description = "SERVICE UNAVAILABLE",
+                    content = @Content(
+                            schema = @Schema(implementation = ProblemDetail.class)
+                    )
+            ),
+    })
+    public SseEmitter streamChanges(
+            @Parameter(name = "since", description = "이전에 받은 마지막 seq", in = ParameterIn.QUERY) @RequestParam(required = false) Long since,
+            @Parameter(hidden = true) @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        long cursor = lastEventId != null ? lastEventId : since != null ? since : changeLog.getLastSeq();
+        return changeStream.subscribe(cursor);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.sample.customer;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+@Schema(description = "고객 변경 내역 한 건")
+@Getter @Setter @AllArgsConstructor
+public class CustomerChangeDTO {
+
+    public enum Type {
+        upsert, delete
+    }
+
+    @Schema(description = "변경 순번 (커밋 순서대로 증가하고, 재시작해도 줄어들지 않는다)", example = "1760791824000001")
+    private long seq;
+
+    @Schema(description = "변경 종류 (upsert: 저장 / 수정, delete: 삭제)", example = "upsert")
+    private Type type;
+
+    @Schema(description = "고객 ID")
+    private Long id;
+
+    @Schema(description = "고객 이름 (delete 면 null)", example = "박진희")
+    private String name;
+
+    @Schema(description = "고객 전화번호 (delete 면 null)", example = "01040234504")
+    private String tel;
+
+    @Schema(description = "변경 후 버전 (delete 면 삭제 직전 버전 + 1)", example = "1")
+    private Long version;
+
+}
@@ -0,0 +1,160 @@
+package com.example.sample.customer;
+
+import com.example.sample.common.exception.Common410Exception;
+import com.example.sample.common.exception.Common503Exception;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 고객 저장 / 수정 / 삭제를 커밋 순서대로 seq 를 붙여 최근 capacity 건까지 링 버퍼에 남긴다.
+// 다운스트림은 GET /customer/changes?since= (long-poll) 나 SSE 로 since 이후의 변경만 받아 간다.
+// - 트랜잭션 안에서 부르면 커밋된 뒤에 기록한다. 롤백된 변경은 나가지 않는다.
+//   거의 동시에 커밋된 두 트랜잭션은 seq 순서가 커밋 순서와 다를 수 있으므로, 같은 id 는 version 이 큰 것만 반영한다.
+//   delete 도 version(삭제 직전 버전 + 1)을 가지므로 늦게 도착한 upsert 가 삭제된 고객을 되살리지 않는다.
+// - since 가 링에서 밀려났거나 다른 프로세스(재시작 전)의 값이면 410 이다. 전체 목록을 다시 읽어야 한다.
+// - 프로세스 안의 기록이므로 인스턴스가 여러 개면 인스턴스마다 따로 구독해야 한다.
+@Slf4j
+@Component
+public class CustomerChangeLog {
+
+    private final CustomerChangeDTO[] changes;
+    private final int maxListeners;
+    private final Set<Runnable> listeners = ConcurrentHashMap.newKeySet();
+    private final Counter gone;
+
+    // 마지막으로 기록한 seq 와 링에 남아 있는 가장 오래된 seq. this 로 보호한다.
+    private long lastSeq;
+    private long firstSeq;
+
+    public CustomerChangeLog(
+            MeterRegistry meterRegistry,
+            @Value("${sample.change-log.capacity:10000}") int capacity,
+            @Value("${sample.change-log.max-listeners:1000}") int maxListeners
+    ) {
+        this.changes = new CustomerChangeDTO[capacity];
+        this.maxListeners = maxListeners;
+        // 재시작해도 seq 가 줄어들지 않도록 시작 시각(ms) * 1000 부터 센다. 이전 프로세스의 since 는 410 이 된다.
+        this.lastSeq = System.currentTimeMillis() * 1000;
+        this.firstSeq = lastSeq + 1;
+
+        Gauge.builder("customer.changes.seq", this, CustomerChangeLog::getLastSeq)
+                .description("마지막으로 기록한 고객 변경 seq")
+                .register(meterRegistry);
+        Gauge.builder("customer.changes.listeners", listeners, Set::size)
+                .description("변경을 기다리는 long-poll 요청과 SSE 구독자 수")
+                .register(meterRegistry);
+        this.gone = Counter.builder("customer.changes.gone")
+                .description("since 가 링에서 밀려나 410 으로 응답한 수")
+                .register(meterRegistry);
+    }
+
+    public void upserted(Customer customer) {
+        upserted(List.of(customer));
+    }
+
+    public void upserted(Collection<Customer> customers) {
+        List<Change> upserts = new ArrayList<>(customers.size());
+        for (Customer customer : customers) {
+            upserts.add(new Change(CustomerChangeDTO.Type.upsert, customer.getId(), customer.getName(), customer.getTel(), customer.getVersion()));
+        }
+        afterCommit(upserts);
+    }
+
+    // version 은 삭제한 행의 마지막 버전 + 1 이다. 같은 id 의 어떤 upsert 보다 크다.
+    public void deleted(Long id, long version) {
+        afterCommit(List.of(new Change(CustomerChangeDTO.Type.delete, id, null, null, version)));
+    }
+
+    // 가져오기처럼 한 건씩 기록하기 어려운 대량 변경 뒤에 부른다. 지금까지의 since 는 모두 410 이 된다.
+    public void invalidate() {
+        long seq;
+        synchronized (this) {
+            seq = ++lastSeq;
+            firstSeq = seq + 1;
+        }
+        log.info("고객 변경 내역 초기화 - seq {}", seq);
+        notifyListeners();
+    }
+
+    // since 다음 seq 부터 최대 limit 건. 변경이 없으면 changes 는 비어 있고 next 는 since 그대로다.
+    public synchronized CustomerChangesDTO read(long since, int limit) {
+        if (since < firstSeq - 1 || since > lastSeq) {
+            gone.increment();
+            throw new Common410Exception(CustomerConstant.changesGoneMessage);
+        }
+        long to = Math.min(lastSeq, since + limit);
+        List<CustomerChangeDTO> result = new ArrayList<>((int) (to - since));
+        for (long seq = since + 1; seq <= to; seq++) {
+            result.add(changes[(int) (seq % changes.length)]);
+        }
+        return new CustomerChangesDTO(result, to);
+    }
+
+    public synchronized long getLastSeq() {
+        return lastSeq;
+    }
+
+    // 새 변경이 기록될 때마다 기록한 스레드에서 불린다. 오래 걸리는 일은 다른 스레드로 넘겨야 한다.
+    public void addListener(Runnable listener) {
+        if (listeners.size() >= maxListeners) {
+            throw new Common503Exception(CustomerConstant.changesBusyMessage, 1);
+        }
+        listeners.add(listener);
+    }
+
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    private void afterCommit(List<Change> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(pending);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                append(pending);
+            }
+        });
+    }
+
+    private void append(List<Change> pending) {
+        synchronized (this) {
+            for (Change change : pending) {
+                lastSeq++;
+                changes[(int) (lastSeq % changes.length)] =
+                        new CustomerChangeDTO(lastSeq, change.type(), change.id(), change.name(), change.tel(), change.version());
+            }
+            firstSeq = Math.max(firstSeq, lastSeq - changes.length + 1);
+        }
+        notifyListeners();
+    }
+
+    private void notifyListeners() {
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                log.warn("고객 변경 알림 실패", e);
+            }
+        }
+    }
+
+    private record Change(CustomerChangeDTO.Type type, Long id, String name, String tel, Long version) {
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.sample.customer;
+
+import com.example.sample.common.exception.Common410Exception;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// GET /customer/changes (text/event-stream) 구독자에게 CustomerChangeLog 의 변경을 SSE 로 보낸다.
+// 구독자마다 보낸 위치(cursor)만 들고 있고 보낼 변경은 링 버퍼에서 바로 읽는다. 구독자별 큐가 없으므로
+// 느린 구독자가 있어도 메모리가 늘지 않고, cursor 가 링에서 밀려나면 reset 이벤트를 보내고 끊는다. (backpressure)
+// 한 구독자에게는 한 번에 한 스레드만 batch 건씩 보내고, 남은 변경은 다시 예약해서 다른 구독자가 기다리지 않게 한다.
+// emitter.send 는 클라이언트가 읽지 않으면 소켓 쓰기에서 멈추므로 보내는 스레드는 sse-threads 를 넘어 구독자 수(max-listeners)까지 늘어난다.
+// 멈춘 구독자는 자기 스레드 하나만 잡고, 쓰기가 sse-write-timeout 을 넘으면 구독에서 빼고 쓰기가 끝나는 대로 reset 을 보낸다.
+// 이벤트 id 가 seq 이므로 EventSource 는 끊겨도 Last-Event-ID 로 이어서 받는다.
+@Slf4j
+@Component
+public class CustomerChangeStream implements SmartLifecycle {
+
+    private final CustomerChangeLog changeLog;
+    private final Duration timeout;
+    private final Duration heartbeat;
+    private final long writeTimeoutNanos;
+    private final int batch;
+    private final int threads;
+    private final int maxThreads;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService sender;
+    private ScheduledExecutorService heartbeatScheduler;
+
+    public CustomerChangeStream(
+            CustomerChangeLog changeLog,
+            @Value("${sample.change-log.sse-timeout:30m}") Duration timeout,
+            @Value("${sample.change-log.sse-heartbeat:15s}") Duration heartbeat,
+            @Value("${sample.change-log.sse-write-timeout:10s}") Duration writeTimeout,
+            @Value("${sample.change-log.sse-batch:100}") int batch,
+            @Value("${sample.change-log.sse-threads:2}") int threads,
+            @Value("${sample.change-log.max-listeners:1000}") int maxListeners
+    ) {
+        this.changeLog = changeLog;
+        this.timeout = timeout;
+        this.heartbeat = heartbeat;
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        this.batch = batch;
+        this.threads = threads;
+        this.maxThreads = Math.max(threads, maxListeners);
+    }
+
+    // since 가 이미 링에서 밀려났으면 SSE 를 시작하지 않고 410 으로 응답한다.
+    public SseEmitter subscribe(long since) {
+        changeLog.read(since, 0);
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, since);
+        changeLog.addListener(subscriber.listener);
+        subscribers.add(subscriber);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscriber.signal();
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void start() {
+        AtomicInteger count = new AtomicInteger();
+        // 구독자마다 보내는 작업은 많아야 하나라서 스레드가 maxThreads 를 넘지 않는다.
+        sender = new ThreadPoolExecutor(threads, maxThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "customer-changes-sse-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "customer-changes-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.min(heartbeat.toMillis(), TimeUnit.NANOSECONDS.toMillis(writeTimeoutNanos));
+        heartbeatScheduler.scheduleWithFixedDelay(this::heartbeat, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // 웹 서버(Integer.MAX_VALUE - 1)가 요청이 끝나기를 기다리기 전에 구독을 끝낸다.
+    @Override
+    public void stop() {
+        if (sender == null) {
+            return;
+        }
+        heartbeatScheduler.shutdownNow();
+        subscribers.forEach(Subscriber::stop);
+        sender.shutdown();
+        sender = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return sender != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE;
+    }
+
+    // 한동안 보낸 게 없는 구독자에게 주석 한 줄을 보내서 프록시가 연결을 끊지 않게 하고, 끊긴 구독자를 정리한다.
+    // 쓰기가 sse-write-timeout 을 넘게 멈춘 구독자는 읽지 않는 것으로 보고 구독에서 뺀다.
+    // 그 emitter 는 보내는 스레드가 잡고 있으므로 여기서는 건드리지 않는다. (ResponseBodyEmitter 의 메서드는 synchronized)
+    private void heartbeat() {
+        long idleNanos = heartbeat.toNanos();
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long sendStarted = subscriber.sendStarted;
+            if (sendStarted != 0 && now - sendStarted > writeTimeoutNanos) {
+                log.info("고객 변경 구독자가 {}ms 동안 받지 않아 구독에서 뺍니다.", TimeUnit.NANOSECONDS.toMillis(now - sendStarted));
+                subscriber.close();
+                continue;
+            }
+            if (now - subscriber.lastSent >= idleNanos) {
+                subscriber.heartbeatDue = true;
+                subscriber.signal();
+            }
+        }
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // 메서드 참조는 만들 때마다 다른 객체라서 removeListener 에 같은 것을 넘기도록 한 번만 만든다.
+        private final Runnable listener = this::signal;
+        // sender 스레드에서만 바꾸고, scheduled 로 한 번에 한 스레드만 돈다.
+        private long cursor;
+        private volatile long lastSent = System.nanoTime();
+        // 보내는 중이면 시작한 System.nanoTime(), 아니면 0
+        private volatile long sendStarted;
+        private volatile boolean heartbeatDue;
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        void signal() {
+            ExecutorService executor = sender;
+            if (closed || executor == null || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(this);
+            } catch (RuntimeException e) {
+                scheduled.set(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            long started = System.nanoTime();
+            sendStarted = started;
+            try {
+                send();
+            } finally {
+                sendStarted = 0;
+                scheduled.set(false);
+            }
+            // 느린 구독자는 cursor 가 링에서 밀려나기 전에 끊어서 다시 연결하게 한다.
+            if (System.nanoTime() - started > writeTimeoutNanos) {
+                reset(CustomerConstant.changesSlowMessage);
+                return;
+            }
+            if (closed) {
+                return;
+            }
+            // 보내는 동안 들어온 변경은 signal 이 scheduled 때문에 건너뛰었으므로 여기서 다시 확인한다.
+            if (changeLog.getLastSeq() > cursor) {
+                signal();
+            }
+        }
+
+        private void send() {
+            try {
+                CustomerChangesDTO changes = changeLog.read(cursor, batch);
+                for (CustomerChangeDTO change : changes.getChanges()) {
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(change.getSeq()))
+                            .name("change")
+                            .data(change, MediaType.APPLICATION_JSON));
+                }
+                boolean sent = !changes.getChanges().isEmpty();
+                if (!sent && heartbeatDue) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                    sent = true;
+                }
+                heartbeatDue = false;
+                cursor = changes.getNext();
+                if (sent) {
+                    lastSent = System.nanoTime();
+                }
+            } catch (Common410Exception e) {
+                reset(e.getMessage());
+            } catch (IOException | IllegalStateException e) {
+                // 클라이언트가 끊었거나 emitter 가 이미 끝남
+                close();
+            }
+        }
+
+        private void reset(String message) {
+            try {
+                emitter.send(SseEmitter.event().name("reset").data(message));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("고객 변경 구독 reset 전송 실패", e);
+            }
+            close();
+        }
+
+        // 종료할 때 부른다. 보내는 중인 emitter 는 complete 가 쓰기를 기다리므로, 그 구독은 웹 서버가 닫는다.
+        void stop() {
+            close();
+            if (sendStarted == 0) {
+                emitter.complete();
+            }
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            changeLog.removeListener(listener);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.sample.customer;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Schema(description = "고객 변경 내역")
+@Getter @Setter @AllArgsConstructor
+public class CustomerChangesDTO {
+
+    @Schema(description = "since 이후의 변경 (seq 순서)")
+    private List<CustomerChangeDTO> changes;
+
+    @Schema(description = "다음 요청의 since 값", example = "1760791824000042")
+    private long next;
+
+}
@@ -3,8 +3,43 @@ package com.example.sample.customer;
 public interface CustomerConstant {
 
     String notFoundMessage = "고객 정보가 없습니다.";
+    String nameBlankMessage = "이름을 입력해주세요.";
+    String nameSizeMessage = "이름은 5자리 이내로 입력해주세요.";
+    String telBlankMessage = "휴대폰 번호를 입력해주세요.";
+    String telPatternMessage = "휴대폰번호는 숫자로만 입력해주세요.";
+    String telSizeMessage = "휴대폰 번호는 12자리 이내로 입력해주세요.";
+    String limitMessage = "limit 은 1 이상 1000 이하로 입력해주세요.";
+    String idsMessage = "ids 는 1 개 이상 1000 개 이하로 입력해주세요.";
+    String limitAndIdsMessage = "limit 과 ids 는 함께 쓸 수 없습니다. 페이지 조회는 limit, 여러 명 조회는 ids 만 입력해주세요.";
+    String searchMessage = "tel 또는 namePrefix 를 입력해주세요.";
+    String preconditionFailedMessage = "다른 요청이 먼저 고객 정보를 수정했습니다. 다시 조회 후 시도해주세요.";
+    String duplicateTelMessage = "이미 등록된 휴대폰 번호입니다.";
+    String batchParseMessage = "요청 형식이 올바르지 않습니다.";
+    String batchSaveMessage = "고객 저장에 실패했습니다.";
+    String importParseMessage = "가져올 파일 형식이 올바르지 않습니다.";
+    String changesGoneMessage = "since 이후의 변경 내역이 남아 있지 않습니다. 전체 목록을 다시 읽은 뒤 since 없이 받은 next 부터 이어서 조회해주세요.";
+    String changesBusyMessage = "변경 내역을 기다리는 요청이 너무 많습니다. 잠시 후 다시 시도해주세요.";
+    String changesWaitMessage = "wait 는 0 이상 60 이하로 입력해주세요.";
+    String changesSlowMessage = "변경을 제때 받지 못해 구독을 끝냅니다. Last-Event-ID 로 다시 연결해주세요.";
+    String importFailedMessage = "고객 가져오기에 실패했습니다. 이미 있는 id 또는 휴대폰 번호인지 확인해주세요.";
+    String importRowMessage = "가져올 파일의 %d 번째 고객이 올바르지 않습니다. %s";
     String url = "/customer";
     String name = "customer";
     String description = "고객";
+    String cacheName = "customer";
+    String sequenceName = "customer_seq";
+    String changesUrl = "/customer/changes";
+    String adminUrl = "/admin/customer";
+    String adminName = "customer-admin";
+    String adminDescription = "고객 관리";
+
+    int nameMaxSize = 5;
+    int telMaxSize = 11;
+    String telPattern = "[0-9]+";
+
+    int maxPageSize = 1000;
+    int streamFetchSize = 500;
+    int batchChunkSize = 500;
+    int idAllocationSize = 50;
 
 }
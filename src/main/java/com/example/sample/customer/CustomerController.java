@@ -1,6 +1,14 @@
 package com.example.sample.customer;
 
 import com.example.sample.common.exception.Common400Exception;
+import com.example.sample.common.exception.Common412Exception;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -12,10 +20,23 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.Errors;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
 import java.util.Optional;
 
 @Slf4j
@@ -24,10 +45,35 @@ import java.util.Optional;
 @Tag(name = CustomerConstant.name, description = CustomerConstant.description)
 public class CustomerController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final CustomerService customerService;
+    private final ObjectWriter lineWriter;
+    private final ObjectReader insertReader;
+    private final CustomerRequestValidator requestValidator;
+    private final CustomerJsonCache jsonCache;
+    // sample.write-behind.enabled=true 일 때만 있다. 없으면 null
+    private final CustomerPatchQueue patchQueue;
 
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, ObjectMapper objectMapper, CustomerRequestValidator requestValidator,
+                              CustomerJsonCache jsonCache, ObjectProvider<CustomerPatchQueue> patchQueue) {
         this.customerService = customerService;
+        this.requestValidator = requestValidator;
+        this.jsonCache = jsonCache;
+        this.patchQueue = patchQueue.getIfAvailable();
+        this.lineWriter = objectMapper.writerFor(CustomerDTO.class)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.insertReader = objectMapper.readerFor(CustomerRequest.CustomerInsertRequest.class);
+    }
+
+    // @Valid 요청 본문은 Bean Validation 대신 CustomerRequestValidator 로 검증한다.
+    @InitBinder
+    public void initBinder(WebDataBinder binder) {
+        Object target = binder.getTarget();
+        if (target != null && requestValidator.supports(target.getClass())) {
+            binder.setValidator(requestValidator);
+        }
     }
 
     @GetMapping
@@ -40,16 +86,179 @@ public class CustomerController {
                             )
                     )
             ),
+            @ApiResponse(responseCode = "304", description = "NOT MODIFIED"),
             @ApiResponse(responseCode = "500", description = "INTERNAL SERVER ERROR",
                     content = @Content(
                             schema = @Schema(implementation = ProblemDetail.class)
                     )
             ),
     })
-    public Iterable<CustomerDTO> getCustomers() {
+    public Iterable<CustomerDTO> getCustomers(WebRequest webRequest) {
+        // 목록을 읽기 전에 집계 ETag 만 먼저 확인해서, 바뀐 게 없으면 304 로 끝낸다.
+        if (webRequest.checkNotModified(customerService.getCustomersETag())) {
+            return null;
+        }
         return customerService.getCustomers();
     }
 
+    @GetMapping(params = "limit")
+    @Operation(summary = "고객 페이지 조회", description = "id 커서(after) 이후의 고객을 limit 건 조회합니다. 응답의 next 를 다음 요청의 after 로 사용합니다.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(
+                            schema = @Schema(implementation = CustomerPageDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "BAD REQUEST",
+                    content = @Content(
+                            schema = @Schema(implementation = ProblemDetail.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "500", description = "INTERNAL SERVER ERROR",
+                    content = @Content(
+                            schema = @Schema(implementation = ProblemDetail.class)
+                    )
+            ),
+    })
+    public CustomerPageDTO getCustomerPage(
+            @Parameter(name = "after", description = "이전 페이지의 마지막 고객 id", in = ParameterIn.QUERY) @RequestParam(defaultValue = "0") long after,
+            @Parameter(name = "limit", description = "조회할 고객 수 (1 ~ 1000)", in = ParameterIn.QUERY) @RequestParam int limit
+    ) {
+        if (limit < 1 || limit > CustomerConstant.maxPageSize) {
+            throw Common400Exception.stackless(CustomerConstant.limitMessage);
+        }
+        return customerService.getCustomers(after, limit);
+    }
+
+    @GetMapping(params = "ids")
+    @Operation(summary = "고객 여러 명 조회", description = "ids 로 준 고객들을 한 번에 조회합니다. 요청한 순서대로 응답하고, 없는 id 는 빠집니다.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(
+                            array = @ArraySchema (
+                                    schema = @Schema(implementation = CustomerDTO.class)
+                            )
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "BAD REQUEST",
+                    content = @Content(
+                            schema = @Schema(implementation = ProblemDetail.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "500", description = "INTERNAL SERVER ERROR",
+                    content = @Content(
+                            schema = @Schema(implementation = ProblemDetail.class)
+                    )
+            ),
+    })
+    public List<CustomerDTO> getCustomersByIds(
+            @Parameter(name = "ids", description = "고객 id 목록 (쉼표로 구분, 1 ~ 1000 개)", in = ParameterIn.QUERY, example = "1,2,3") @RequestParam List<Long> ids
+    ) {
+        return lookupCustomers(ids);
+    }
+
+    // limit 과 ids 를 함께 주면 위 두 매핑이 모두 맞아서 어느 쪽인지 정하지 못하고 500 이 된다.
+    // 파라미터가 더 많은 이 매핑이 먼저 골라지므로 여기서 400 으로 알린다.
+    @Hidden
+    @GetMapping(params = {"limit", "ids"})
+    public List<CustomerDTO> getCustomersByLimitAndIds() {
+        throw Common400Exception.stackless(CustomerConstant.limitAndIdsMessage);
+    }
+
+    @PostMapping("/lookup")
+    @Operation(summary = "고객 여러 명 조회 (POST)", description = "URL 에 담기 어려운 많은 id 를 본문의 JSON 배열로 받아 한 번에 조회합니다.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(
+                            array = @ArraySchema (
+                                    schema = @Schema(implementation = CustomerDTO.class)
+                            )
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "BAD REQUEST",
+                    content = @Content(
+                            schema = @Schema(implementation = ProblemDetail.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "500", description = "INTERNAL SERVER ERROR",
+                    content = @Content(
+                            schema = @Schema(implementation = ProblemDetail.class)
+                    )
+            ),
+    })
+    public List<CustomerDTO> lookupCustomers(@RequestBody List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > CustomerConstant.maxPageSize || ids.contains(null)) {
+            throw Common400Exception.stackless(CustomerConstant.idsMessage);
+        }
+        return customerService.getCustomers(ids);
+    }
+
+    @GetMapping(produces = NDJSON)
+    @Operation(summary = "고객 리스트 스트리밍 조회", description = "고객 리스트를 한 줄에 한 건씩 NDJSON 으로 스트리밍합니다.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(
+                            mediaType = NDJSON,
+                            schema = @Schema(implementation = CustomerDTO.class)
+                    )
+            ),
+    })
+    public ResponseEntity<StreamingResponseBody> streamCustomers() {
+        // StreamingResponseBody 만 돌려주면 Content-Type 이 붙지 않아서 압축 필터나 클라이언트가 형식을 알 수 없다.
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = lineWriter.writeValues(outputStream)) {
+                customerService.streamCustomers(customer -> {
+                    try {
+                        writer.write(customer);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "고객 검색", description = "휴대폰 번호(tel)가 일치하거나 이름이 namePrefix 로 시작하는 고객을 조회합니다. 둘 다 주면 두 조건을 모두 만족하는 고객을 조회합니다.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(
+                            array = @ArraySchema (
+                                    schema = @Schema(implementation = CustomerDTO.class)
+                            )
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "BAD REQUEST",
+                    content = @Content(
+                            schema = @Schema(implementation = ProblemDetail.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "500", description = "INTERNAL SERVER ERROR",
+                    content = @Content(
+                            schema = @Schema(implementation = ProblemDetail.class)
+                    )
+            ),
+    })
+    public List<CustomerDTO> searchCustomers(
+            @Parameter(name = "tel", description = "고객 휴대폰 번호", in = ParameterIn.QUERY) @RequestParam(required = false) String tel,
+            @Parameter(name = "namePrefix", description = "고객 이름 앞부분", in = ParameterIn.QUERY) @RequestParam(required = false) String namePrefix,
+            @Parameter(name = "limit", description = "조회할 고객 수 (1 ~ 1000)", in = ParameterIn.QUERY) @RequestParam(defaultValue = "100") int limit
+    ) {
+        if (!StringUtils.hasText(tel) && !StringUtils.hasText(namePrefix)) {
+            throw Common400Exception.stackless(CustomerConstant.searchMessage);
+        }
+        if (limit < 1 || limit > CustomerConstant.maxPageSize) {
+            throw Common400Exception.stackless(CustomerConstant.limitMessage);
+        }
+        return customerService.searchCustomers(
+                StringUtils.hasText(tel) ? tel : null,
+                StringUtils.hasText(namePrefix) ? namePrefix : null,
+                limit
+        );
+    }
 
     @GetMapping("/{id}")
     @Operation(summary = "고객 조회", description = "고객 정보를 조회합니다.")
@@ -65,20 +274,36 @@ public class CustomerController {
                             schema = @Schema(implementation = ProblemDetail.class)
                     )
             ),
+            @ApiResponse(responseCode = "304", description = "NOT MODIFIED"),
             @ApiResponse(responseCode = "500", description = "INTERNAL SERVER ERROR",
                     content = @Content(
                             schema = @Schema(implementation = ProblemDetail.class)
                     )
             ),
     })
-    public CustomerDTO getCustomer(
-            @Parameter(name = "id", description = "고객의 id", in = ParameterIn.PATH) @PathVariable Long id
+    public ResponseEntity<byte[]> getCustomer(
+            @Parameter(name = "id", description = "고객의 id", in = ParameterIn.PATH) @PathVariable Long id,
+            WebRequest webRequest
     ) {
-        Optional<Customer> customerOptional = customerService.getCustomer(id);
+        Optional<CustomerSnapshot> customerOptional = customerService.getCustomer(id);
         if (customerOptional.isEmpty()) {
-            throw new Common400Exception(CustomerConstant.notFoundMessage);
+            throw Common400Exception.stackless(CustomerConstant.notFoundMessage);
+        }
+        CustomerSnapshot customer = customerOptional.get();
+        // 아직 반영되지 않은 PATCH 가 있으면 그 이름으로 응답한다.
+        if (patchQueue != null && patchQueue.isPending(id)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(jsonCache.serialize(patchQueue.overlay(customer).toDTO()));
+        }
+        // 본문을 만들기 전에 ETag 부터 확인해서, If-None-Match 가 같으면 직렬화 없이 304 로 끝낸다.
+        // ETag 헤더는 checkNotModified 가 붙인다. 본문은 캐시된 JSON 을 그대로 쓴다.
+        if (webRequest.checkNotModified(Long.toString(customer.version()))) {
+            return null;
         }
-        return customerOptional.get().toDTO();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonCache.toJson(customer));
     }
 
     @PostMapping
@@ -101,15 +326,52 @@ public class CustomerController {
                     )
             ),
     })
-    public CustomerDTO saveCustomer(
+    public ResponseEntity<CustomerDTO> saveCustomer(
             @RequestBody @Valid CustomerRequest.CustomerInsertRequest request,
             Errors errors
     ) {
         if (errors.hasErrors()) {
-            throw new Common400Exception(errors.getFieldErrors().get(0).getDefaultMessage());
+            throw Common400Exception.stackless(errors.getFieldErrors().get(0).getDefaultMessage());
         }
 
-        return customerService.mergeCustomer(request.toEntity()).toDTO();
+        try {
+            return withETag(customerService.mergeCustomer(request.toEntity()));
+        } catch (DataIntegrityViolationException e) {
+            throw Common400Exception.stackless(CustomerConstant.duplicateTelMessage);
+        }
+    }
+
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON})
+    @Operation(summary = "고객 일괄 저장", description = "고객 저장 정보 배열(JSON) 또는 한 줄에 한 건씩(NDJSON) 받아 일괄 저장합니다. 실패한 항목은 errors 로 알려주고 나머지는 저장합니다.")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            content = {
+                    @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = CustomerRequest.CustomerInsertRequest.class))
+                    ),
+                    @Content(
+                            mediaType = NDJSON,
+                            schema = @Schema(implementation = CustomerRequest.CustomerInsertRequest.class)
+                    )
+            }
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(
+                            schema = @Schema(implementation = CustomerBatchDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "500", description = "INTERNAL SERVER ERROR",
+                    content = @Content(
+                            schema = @Schema(implementation = ProblemDetail.class)
+                    )
+            ),
+    })
+    public CustomerBatchDTO saveCustomers(InputStream body) throws IOException {
+        // 배열이든 NDJSON 이든 한 건씩 읽어서 요청 전체를 메모리에 올리지 않는다.
+        try (MappingIterator<CustomerRequest.CustomerInsertRequest> requests = insertReader.readValues(body)) {
+            return customerService.saveCustomers(requests);
+        }
     }
 
     @Operation(summary = "고객 전체 수정", description = "고객 정보를 전체 수정합니다.")
@@ -125,6 +387,11 @@ public class CustomerController {
                             schema = @Schema(implementation = ProblemDetail.class)
                     )
             ),
+            @ApiResponse(responseCode = "412", description = "PRECONDITION FAILED",
+                    content = @Content(
+                            schema = @Schema(implementation = ProblemDetail.class)
+                    )
+            ),
             @ApiResponse(responseCode = "500", description = "INTERNAL SERVER ERROR",
                     content = @Content(
                             schema = @Schema(implementation = ProblemDetail.class)
@@ -132,23 +399,27 @@ public class CustomerController {
             ),
     })
     @PutMapping("/{id}")
-    public CustomerDTO putCustomer(
+    public ResponseEntity<CustomerDTO> putCustomer(
             @Parameter(name = "id", description = "고객의 id", in = ParameterIn.PATH) @PathVariable Long id,
+            @Parameter(name = "If-Match", description = "조회 때 받은 ETag (다르면 412)", in = ParameterIn.HEADER) @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody @Valid CustomerRequest.CustomerPutUpdateRequest request,
             Errors errors
     ) {
         if (errors.hasErrors()) {
-            throw new Common400Exception(errors.getFieldErrors().get(0).getDefaultMessage());
+            throw Common400Exception.stackless(errors.getFieldErrors().get(0).getDefaultMessage());
         }
 
-        Optional<Customer> customerOptional = customerService.getCustomer(id);
+        discardPendingPatch(id);
+        Optional<CustomerSnapshot> customerOptional;
+        try {
+            customerOptional = customerService.putCustomer(id, version(ifMatch), request);
+        } catch (DataIntegrityViolationException e) {
+            throw Common400Exception.stackless(CustomerConstant.duplicateTelMessage);
+        }
         if (customerOptional.isEmpty()) {
-            throw new Common400Exception(CustomerConstant.notFoundMessage);
+            throw Common400Exception.stackless(CustomerConstant.notFoundMessage);
         }
-        Customer customer = customerOptional.get();
-        request.update(customer);
-
-        return customerService.mergeCustomer(customer).toDTO();
+        return withETag(customerOptional.get());
     }
 
     @Operation(summary = "고객 일부 수정", description = "고객 정보를 일부 수정합니다.")
@@ -164,6 +435,11 @@ public class CustomerController {
                             schema = @Schema(implementation = ProblemDetail.class)
                     )
             ),
+            @ApiResponse(responseCode = "412", description = "PRECONDITION FAILED",
+                    content = @Content(
+                            schema = @Schema(implementation = ProblemDetail.class)
+                    )
+            ),
             @ApiResponse(responseCode = "500", description = "INTERNAL SERVER ERROR",
                     content = @Content(
                             schema = @Schema(implementation = ProblemDetail.class)
@@ -171,23 +447,26 @@ public class CustomerController {
             ),
     })
     @PatchMapping("/{id}")
-    public CustomerDTO patchCustomer(
+    public ResponseEntity<CustomerDTO> patchCustomer(
             @Parameter(name = "id", description = "고객의 id", in = ParameterIn.PATH) @PathVariable Long id,
+            @Parameter(name = "If-Match", description = "조회 때 받은 ETag (다르면 412)", in = ParameterIn.HEADER) @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody @Valid CustomerRequest.CustomerPatchUpdateRequest request,
             Errors errors
     ) {
         if (errors.hasErrors()) {
-            throw new Common400Exception(errors.getFieldErrors().get(0).getDefaultMessage());
+            throw Common400Exception.stackless(errors.getFieldErrors().get(0).getDefaultMessage());
         }
 
-        Optional<Customer> customerOptional = customerService.getCustomer(id);
+        Long version = version(ifMatch);
+        if (version == null && patchQueue != null) {
+            return enqueuePatch(id, request);
+        }
+        discardPendingPatch(id);
+        Optional<CustomerSnapshot> customerOptional = customerService.patchCustomer(id, version, request);
         if (customerOptional.isEmpty()) {
-            throw new Common400Exception(CustomerConstant.notFoundMessage);
+            throw Common400Exception.stackless(CustomerConstant.notFoundMessage);
         }
-        Customer customer = customerOptional.get();
-        request.update(customer);
-
-        return customerService.mergeCustomer(customer).toDTO();
+        return withETag(customerOptional.get());
     }
 
 
@@ -195,19 +474,57 @@ public class CustomerController {
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "OK"),
             @ApiResponse(responseCode = "400", description = "BAD REQUEST"),
+            @ApiResponse(responseCode = "412", description = "PRECONDITION FAILED"),
             @ApiResponse(responseCode = "500", description = "INTERNAL SERVER ERROR")
     })
     @DeleteMapping("/{id}")
     public void deleteCustomer(
-            @Parameter(name = "id", description = "고객의 id", in = ParameterIn.PATH) @PathVariable Long id
+            @Parameter(name = "id", description = "고객의 id", in = ParameterIn.PATH) @PathVariable Long id,
+            @Parameter(name = "If-Match", description = "조회 때 받은 ETag (다르면 412)", in = ParameterIn.HEADER) @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
+        discardPendingPatch(id);
+        if (!customerService.deleteCustomer(id, version(ifMatch))) {
+            throw Common400Exception.stackless(CustomerConstant.notFoundMessage);
+        }
+    }
 
-        Optional<Customer> customerOptional = customerService.getCustomer(id);
+    // write-behind: 있는 고객인지만 확인하고 큐에 넣는다. version 이 아직 오르지 않았으므로 ETag 는 붙이지 않는다.
+    private ResponseEntity<CustomerDTO> enqueuePatch(Long id, CustomerRequest.CustomerPatchUpdateRequest request) {
+        Optional<CustomerSnapshot> customerOptional = customerService.getCustomer(id);
         if (customerOptional.isEmpty()) {
-            throw new Common400Exception(CustomerConstant.notFoundMessage);
+            throw Common400Exception.stackless(CustomerConstant.notFoundMessage);
         }
+        patchQueue.enqueue(id, request.getName());
+        return ResponseEntity.ok(patchQueue.overlay(customerOptional.get()).toDTO());
+    }
 
-        customerService.deleteCustomer(customerOptional.get());
+    private void discardPendingPatch(Long id) {
+        if (patchQueue != null) {
+            patchQueue.discard(id);
+        }
+    }
+
+    private static ResponseEntity<CustomerDTO> withETag(CustomerSnapshot customer) {
+        return ResponseEntity.ok()
+                .eTag(Long.toString(customer.version()))
+                .body(customer.toDTO());
+    }
+
+    // If-Match 의 ETag("3", W/"3")에서 버전을 꺼낸다. 헤더가 없거나 * 이면 버전 확인을 하지 않는다.
+    private static Long version(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String etag = ifMatch.trim();
+        // If-Match 는 강한 비교라 약한 ETag 는 어떤 표현과도 같지 않다 (RFC 9110 13.1.1).
+        if (etag.startsWith("W/")) {
+            throw new Common412Exception(CustomerConstant.preconditionFailedMessage);
+        }
+        try {
+            return Long.parseLong(etag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new Common412Exception(CustomerConstant.preconditionFailedMessage);
+        }
     }
 
 }
@@ -0,0 +1,42 @@
+package com.example.sample.customer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+// CustomerDTO 를 BeanSerializer (getter 를 리플렉션으로 찾고 속성마다 BeanPropertyWriter 를 거침) 대신
+// 필드를 직접 읽어서 쓴다. 필드 이름은 미리 인코딩해 두고, 출력은 기본 직렬화와 같다.
+// @JsonComponent 라서 스프링이 만든 ObjectMapper (MVC 응답, NDJSON 스트림, WebFlux) 에 모두 적용된다.
+@JsonComponent
+public class CustomerDTOSerializer extends JsonSerializer<CustomerDTO> {
+
+    private static final SerializableString idField = new SerializedString("id");
+    private static final SerializableString nameField = new SerializedString("name");
+    private static final SerializableString telField = new SerializedString("tel");
+
+    @Override
+    public void serialize(CustomerDTO customer, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(customer);
+        generator.writeFieldName(idField);
+        if (customer.getId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(customer.getId());
+        }
+        generator.writeFieldName(nameField);
+        generator.writeString(customer.getName());
+        generator.writeFieldName(telField);
+        generator.writeString(customer.getTel());
+        generator.writeEndObject();
+    }
+
+    @Override
+    public Class<CustomerDTO> handledType() {
+        return CustomerDTO.class;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.sample.customer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+// GET /customer/{id} 응답 본문(JSON byte[])을 id 별로 들고 있다가 고객 값(CustomerSnapshot)이 같으면 그대로 쓴다.
+// version 만 비교하면 삭제 뒤 같은 id / version 으로 다시 가져온(import) 고객에게 지워진 고객의 JSON 을 돌려주므로
+// 이름과 번호까지 비교한다. 고객이 바뀌면 따로 지우지 않아도 다음 조회 때 새로 만들어진다.
+// sample.json-cache.max-size 가 0 (기본) 이면 캐시하지 않고 매번 직렬화한다.
+@Component
+public class CustomerJsonCache {
+
+    private record Entry(CustomerSnapshot customer, byte[] json) {
+    }
+
+    private final ObjectWriter writer;
+    private final Cache<Long, Entry> cache;
+
+    public CustomerJsonCache(
+            ObjectMapper objectMapper,
+            @Value("${sample.json-cache.max-size:0}") long maxSize,
+            @Value("${sample.json-cache.expire-after-access:10m}") Duration expireAfterAccess
+    ) {
+        this.writer = objectMapper.writerFor(CustomerDTO.class);
+        this.cache = maxSize > 0
+                ? Caffeine.newBuilder().maximumSize(maxSize).expireAfterAccess(expireAfterAccess).build()
+                : null;
+    }
+
+    public byte[] toJson(CustomerSnapshot customer) {
+        if (cache == null) {
+            return serialize(customer.toDTO());
+        }
+        Entry entry = cache.getIfPresent(customer.id());
+        if (entry == null || !entry.customer().equals(customer)) {
+            entry = new Entry(customer, serialize(customer.toDTO()));
+            cache.put(customer.id(), entry);
+        }
+        return entry.json();
+    }
+
+    // version 으로 구분할 수 없는 응답 (write-behind 로 아직 반영되지 않은 이름 등) 은 캐시하지 않는다.
+    public byte[] serialize(CustomerDTO customer) {
+        try {
+            return writer.writeValueAsBytes(customer);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
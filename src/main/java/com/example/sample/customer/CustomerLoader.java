@@ -0,0 +1,168 @@
+package com.example.sample.customer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// DataLoader 처럼 window 동안 들어온 id 하나짜리 조회를 모아서 findAllById (where id in (...)) 한 번으로 읽는다.
+// 프론트가 한 화면에서 GET /customer/{id} 를 수십 개씩 동시에 보낼 때 DB 왕복을 batch 크기만큼 줄인다.
+// 같은 id 를 동시에 찾으면 하나의 결과(불변 CustomerSnapshot)를 나눠 쓴다. 대신 혼자 온 조회는 window 만큼 늦어진다.
+@Component
+@ConditionalOnProperty(name = "sample.customer-loader.enabled", havingValue = "true")
+public class CustomerLoader implements SmartLifecycle {
+
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final int threads;
+
+    private final Counter requests;
+    private final DistributionSummary batchSize;
+
+    // 아래 두 값은 synchronized (this) 안에서만 바꾼다.
+    private Map<Long, CompletableFuture<Optional<CustomerSnapshot>>> pending = new HashMap<>();
+    private ScheduledExecutorService executor;
+
+    public CustomerLoader(
+            CustomerRepository customerRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${sample.customer-loader.window:2ms}") Duration window,
+            @Value("${sample.customer-loader.max-batch:100}") int maxBatch,
+            @Value("${sample.customer-loader.threads:4}") int threads
+    ) {
+        this.customerRepository = customerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.windowNanos = window.toNanos();
+        this.maxBatch = maxBatch;
+        this.threads = threads;
+        this.requests = Counter.builder("customer.loader.requests")
+                .description("id 하나짜리 조회 요청 수")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("customer.loader.batch.size")
+                .description("in 쿼리 한 번에 묶인 id 수 (count 가 실제 쿼리 수)")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public Optional<CustomerSnapshot> load(Long id) {
+        requests.increment();
+        CompletableFuture<Optional<CustomerSnapshot>> future;
+        synchronized (this) {
+            if (executor == null) {
+                future = null;
+            } else {
+                future = pending.get(id);
+                if (future == null) {
+                    future = new CompletableFuture<>();
+                    pending.put(id, future);
+                    if (pending.size() == 1) {
+                        executor.schedule(this::dispatchWindow, windowNanos, TimeUnit.NANOSECONDS);
+                    }
+                    if (pending.size() >= maxBatch) {
+                        Map<Long, CompletableFuture<Optional<CustomerSnapshot>>> batch = takePending();
+                        executor.execute(() -> dispatch(batch));
+                    }
+                }
+            }
+        }
+        // 종료 중이면 모으지 않고 바로 읽는다.
+        if (future == null) {
+            return transactionTemplate.execute(status -> customerRepository.findById(id)).map(CustomerSnapshot::of);
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private Map<Long, CompletableFuture<Optional<CustomerSnapshot>>> takePending() {
+        Map<Long, CompletableFuture<Optional<CustomerSnapshot>>> batch = pending;
+        pending = new HashMap<>();
+        return batch;
+    }
+
+    // window 가 끝났을 때 아직 max-batch 로 나가지 않은 것들을 보낸다.
+    private void dispatchWindow() {
+        Map<Long, CompletableFuture<Optional<CustomerSnapshot>>> batch;
+        synchronized (this) {
+            batch = takePending();
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Map<Long, CompletableFuture<Optional<CustomerSnapshot>>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSize.record(batch.size());
+        try {
+            List<Customer> customers = transactionTemplate.execute(status -> customerRepository.findAllById(batch.keySet()));
+            for (Customer customer : customers) {
+                CompletableFuture<Optional<CustomerSnapshot>> future = batch.get(customer.getId());
+                if (future != null) {
+                    future.complete(Optional.of(CustomerSnapshot.of(customer)));
+                }
+            }
+            batch.values().forEach(future -> future.complete(Optional.empty()));
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        executor = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "customer-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // 모아 둔 조회를 마저 보내고 끝낸다.
+    @Override
+    public void stop() {
+        ScheduledExecutorService stopping;
+        Map<Long, CompletableFuture<Optional<CustomerSnapshot>>> batch;
+        synchronized (this) {
+            stopping = executor;
+            executor = null;
+            batch = takePending();
+        }
+        if (stopping == null) {
+            return;
+        }
+        dispatch(batch);
+        stopping.shutdown();
+        try {
+            stopping.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return executor != null;
+    }
+}
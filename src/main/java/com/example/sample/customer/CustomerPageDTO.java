@@ -0,0 +1,20 @@
+package com.example.sample.customer;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Schema(description = "고객 페이지 정보")
+@Getter @Setter @AllArgsConstructor
+public class CustomerPageDTO {
+
+    @Schema(description = "고객 리스트")
+    private List<CustomerDTO> customers;
+
+    @Schema(description = "다음 페이지 커서 (다음 요청의 after 값, 마지막 페이지면 null)", example = "100")
+    private Long next;
+
+}
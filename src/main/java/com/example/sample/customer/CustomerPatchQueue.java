@@ -0,0 +1,257 @@
+package com.example.sample.customer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// If-Match 없는 PATCH /customer/{id} 를 바로 쓰지 않고 id 별로 모아 두었다가(write-behind)
+// interval 마다 또는 max-pending 개가 쌓이면 한 번의 배치 UPDATE 로 반영한다.
+// 같은 id 에 여러 번 들어온 이름 변경은 마지막 것만 남고, version 도 flush 한 번에 1 만 올라간다.
+// sample.write-behind.enabled=true 일 때만 만들어진다.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "sample.write-behind.enabled")
+public class CustomerPatchQueue implements SmartLifecycle {
+
+    private static final String updateSql = "update customer_tb set name = ?, version = version + 1 where id = ?";
+
+    // 웹 서버(WebServerStartStopLifecycle, Integer.MAX_VALUE - 1)가 먼저 멈춘 뒤에 남은 변경을 비운다.
+    private static final int phase = Integer.MAX_VALUE - 2;
+
+    // 아직 flush 되지 않은 변경과, flush 중이라 커밋을 기다리는 변경.
+    // 조회할 때 두 곳을 모두 보기 때문에 커밋 직전까지도 자기가 쓴 이름이 보인다.
+    private final Map<Long, String> pending = new ConcurrentHashMap<>();
+    private final Map<Long, String> flushing = new ConcurrentHashMap<>();
+
+    private final Object flushLock = new Object();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache cache;
+    private final CustomerRepository customerRepository;
+    private final CustomerChangeLog changeLog;
+    private final Duration interval;
+    private final int maxPending;
+
+    private final Counter coalesced;
+    private final Counter failures;
+    private final Timer flushTimer;
+    private final DistributionSummary flushSize;
+
+    private ScheduledExecutorService scheduler;
+
+    public CustomerPatchQueue(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            CacheManager cacheManager,
+            CustomerRepository customerRepository,
+            CustomerChangeLog changeLog,
+            MeterRegistry meterRegistry,
+            @Value("${sample.write-behind.interval:50ms}") Duration interval,
+            @Value("${sample.write-behind.max-pending:" + CustomerConstant.batchChunkSize + "}") int maxPending
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cache = cacheManager.getCache(CustomerConstant.cacheName);
+        this.customerRepository = customerRepository;
+        this.changeLog = changeLog;
+        this.interval = interval;
+        this.maxPending = maxPending;
+
+        Gauge.builder("customer.patch.queue.depth", pending, Map::size)
+                .description("flush 를 기다리는 고객 이름 변경 수")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("customer.patch.coalesced")
+                .description("flush 전에 같은 id 의 변경으로 덮어써진 PATCH 수")
+                .register(meterRegistry);
+        this.failures = Counter.builder("customer.patch.flush.failures")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("customer.patch.flush")
+                .description("배치 UPDATE 한 번을 커밋하는 데 걸린 시간")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.flushSize = DistributionSummary.builder("customer.patch.flush.size")
+                .baseUnit("rows")
+                .register(meterRegistry);
+    }
+
+    public void enqueue(Long id, String name) {
+        if (pending.put(id, name) != null) {
+            coalesced.increment();
+        }
+        if (pending.size() >= maxPending && scheduler != null && flushRequested.compareAndSet(false, true)) {
+            scheduler.execute(this::flush);
+        }
+    }
+
+    // read-your-writes: 아직 DB 에 반영되지 않은 이름이 있으면 그 이름으로 바꾼 사본을 돌려준다.
+    // version 은 flush 전이라 그대로이므로 이 응답에는 ETag 를 붙이지 않는다.
+    public CustomerSnapshot overlay(CustomerSnapshot customer) {
+        String name = pendingName(customer.id());
+        if (name == null) {
+            return customer;
+        }
+        return customer.withName(name);
+    }
+
+    public boolean isPending(Long id) {
+        return pendingName(id) != null;
+    }
+
+    // PUT / If-Match PATCH / DELETE 처럼 바로 쓰는 요청 전에 부른다.
+    // 진행 중인 flush 가 끝나기를 기다린 뒤 남은 변경을 버리므로, 오래된 이름이 나중에 덮어쓰지 않는다.
+    public void discard(Long id) {
+        synchronized (flushLock) {
+            pending.remove(id);
+        }
+    }
+
+    public void flush() {
+        flushRequested.set(false);
+        synchronized (flushLock) {
+            // 실패한 변경은 pending 으로 돌아가므로, 실패하면 다음 flush 로 미룬다.
+            while (!pending.isEmpty()) {
+                if (!flushChunk()) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private boolean flushChunk() {
+        List<Object[]> chunk = new ArrayList<>(Math.min(pending.size(), CustomerConstant.batchChunkSize));
+        Iterator<Long> ids = pending.keySet().iterator();
+        while (ids.hasNext() && chunk.size() < CustomerConstant.batchChunkSize) {
+            Long id = ids.next();
+            String name = pending.remove(id);
+            if (name != null) {
+                flushing.put(id, name);
+                chunk.add(new Object[]{name, id});
+            }
+        }
+
+        Timer.Sample sample = Timer.start();
+        try {
+            List<Customer> flushed = transactionTemplate.execute(status -> {
+                jdbcTemplate.batchUpdate(updateSql, chunk);
+                // 변경 피드와 캐시에는 올라간 version 과 tel 이 필요하므로 같은 트랜잭션에서 다시 읽는다. 기록은 커밋 뒤에 된다.
+                List<Long> flushedIds = new ArrayList<>(chunk.size());
+                for (Object[] row : chunk) {
+                    flushedIds.add((Long) row[1]);
+                }
+                List<Customer> customers = customerRepository.findAllById(flushedIds);
+                changeLog.upserted(customers);
+                return customers;
+            });
+            // 커밋된 뒤 다시 읽은 고객을 캐시에 넣는다. 비우기만 하면 flush 전에 DB 를 읽은 조회가 그 뒤에 오래된 값을 캐시에 넣는다.
+            // customer 캐시는 version 이 낮은 값으로 덮어쓰지 않으므로(CustomerCacheConfig) 늦게 도착한 조회 결과는 버려진다.
+            Set<Long> cached = new HashSet<>(flushed.size());
+            for (Customer customer : flushed) {
+                cache.put(customer.getId(), CustomerSnapshot.of(customer));
+                cached.add(customer.getId());
+            }
+            // 그 사이 삭제되어 다시 읽지 못한 id 는 비운다.
+            for (Object[] row : chunk) {
+                if (!cached.contains(row[1])) {
+                    cache.evict(row[1]);
+                }
+            }
+            return true;
+        } catch (RuntimeException e) {
+            // 그 사이 새 변경이 들어온 id 는 새 변경을 남기고, 나머지는 다음 flush 에서 다시 시도한다.
+            failures.increment();
+            log.warn("고객 이름 변경 {} 건 flush 실패", chunk.size(), e);
+            for (Object[] row : chunk) {
+                pending.putIfAbsent((Long) row[1], (String) row[0]);
+            }
+            return false;
+        } finally {
+            for (Object[] row : chunk) {
+                flushing.remove(row[1], row[0]);
+            }
+            sample.stop(flushTimer);
+            flushSize.record(chunk.size());
+        }
+    }
+
+    private String pendingName(Long id) {
+        String name = pending.get(id);
+        return name != null ? name : flushing.get(id);
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "customer-patch-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // 종료할 때는 예약된 flush 를 멈추고 남은 변경을 모두 쓴 뒤에 DataSource 가 닫히도록 한다.
+    @Override
+    public void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(interval.toMillis() * 10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler = null;
+        log.info("종료 전 남은 고객 이름 변경 {} 건 반영", pending.size());
+        flush();
+        if (!pending.isEmpty()) {
+            log.error("종료 중 고객 이름 변경 {} 건을 반영하지 못했습니다.", pending.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    @Override
+    public int getPhase() {
+        return phase;
+    }
+
+    private void flushQuietly() {
+        // 예외가 나가면 ScheduledExecutorService 가 다음 실행을 취소하므로 여기서 막는다.
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("고객 이름 변경 flush 실패", e);
+        }
+    }
+}
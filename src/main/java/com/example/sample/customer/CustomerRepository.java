@@ -1,6 +1,73 @@
 package com.example.sample.customer;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+    // id 기준 keyset 페이징 - offset 없이 인덱스(PK)만 타고 다음 페이지를 읽는다.
+    @Query("select new com.example.sample.customer.CustomerDTO(c.id, c.name, c.tel) " +
+            "from Customer c where c.id > :after order by c.id")
+    List<CustomerDTO> findPageAfter(Long after, Pageable pageable);
+
+    // 영속성 컨텍스트에 올리지 않고 DTO 로 바로 읽어 한 건씩 흘려보낸다.
+    @Query("select new com.example.sample.customer.CustomerDTO(c.id, c.name, c.tel) " +
+            "from Customer c order by c.id")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + CustomerConstant.streamFetchSize),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<CustomerDTO> streamAll();
+
+    // 여러 id 를 PK 인덱스로 한 번에 조회 (순서는 호출한 쪽에서 맞춘다)
+    @Query("select new com.example.sample.customer.CustomerDTO(c.id, c.name, c.tel) " +
+            "from Customer c where c.id in :ids")
+    List<CustomerDTO> findAllByIdIn(Collection<Long> ids);
+
+    // customer_tel_uk 유니크 인덱스로 조회
+    Optional<CustomerDTO> findByTel(String tel);
+
+    // customer_name_idx 인덱스로 조회 (like 'prefix%' 는 인덱스 범위 스캔이 된다)
+    List<CustomerDTO> findByNameStartingWithOrderByNameAsc(String namePrefix, Pageable pageable);
+
+    // 목록 ETag 용 요약: 행을 읽어오지 않고 집계만 한다.
+    // insert 는 max(id), update 는 sum(version), delete 는 count 를 바꾼다.
+    @Query("select concat(cast(count(c) as String), '-', cast(coalesce(max(c.id), 0) as String), '-', " +
+            "cast(coalesce(sum(c.version), 0) as String)) from Customer c")
+    String versionSummary();
+
+    // 조회 없이 한 번의 update/delete 로 처리하고, 반영된 row 수로 존재 여부를 판단한다.
+    // version 이 null 이면 버전 확인 없이 반영한다. (If-Match 없음)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Customer c set c.name = :name, c.tel = :tel, c.version = c.version + 1 " +
+            "where c.id = :id and (:version is null or c.version = :version)")
+    int updateNameAndTel(Long id, Long version, String name, String tel);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Customer c set c.name = :name, c.version = c.version + 1 " +
+            "where c.id = :id and (:version is null or c.version = :version)")
+    int updateName(Long id, Long version, String name);
+
+    // 삭제 전에 행을 잠그고(select ... for update) 현재 버전을 읽는다. 커밋할 때까지 다른 수정은 기다린다.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c.version from Customer c where c.id = :id")
+    Optional<Long> lockVersion(Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Customer c where c.id = :id and (:version is null or c.version = :version)")
+    int deleteOne(Long id, Long version);
 }
@@ -0,0 +1,118 @@
+package com.example.sample.customer;
+
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+// CustomerRequest 의 @NotBlank / @Size / @Pattern 을 그대로 옮긴 검증기.
+// 리플렉션과 정규식 없이 문자만 훑어서, 유효한 요청은 아무것도 할당하지 않는다.
+// 메시지는 애너테이션과 같은 CustomerConstant 값을 쓴다.
+@Component
+public class CustomerRequestValidator implements Validator {
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return clazz == CustomerRequest.CustomerInsertRequest.class
+                || clazz == CustomerRequest.CustomerPutUpdateRequest.class
+                || clazz == CustomerRequest.CustomerPatchUpdateRequest.class;
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        if (target instanceof CustomerRequest.CustomerInsertRequest request) {
+            validateName(request.getName(), errors);
+            validateTel(request.getTel(), errors);
+        } else if (target instanceof CustomerRequest.CustomerPutUpdateRequest request) {
+            validateName(request.getName(), errors);
+            validateTel(request.getTel(), errors);
+        } else if (target instanceof CustomerRequest.CustomerPatchUpdateRequest request) {
+            validateName(request.getName(), errors);
+        }
+    }
+
+    // 일괄 저장이나 리액티브 API 처럼 Errors 가 필요 없는 곳에서 쓰는 첫 번째 오류 메시지 (없으면 null)
+    public String firstError(CustomerRequest.CustomerInsertRequest request) {
+        String error = nameError(request.getName());
+        return error != null ? error : telError(request.getTel());
+    }
+
+    public String firstError(CustomerRequest.CustomerPutUpdateRequest request) {
+        String error = nameError(request.getName());
+        return error != null ? error : telError(request.getTel());
+    }
+
+    public String firstError(CustomerRequest.CustomerPatchUpdateRequest request) {
+        return nameError(request.getName());
+    }
+
+    private static String nameError(String name) {
+        if (isBlank(name)) {
+            return CustomerConstant.nameBlankMessage;
+        }
+        if (name.length() > CustomerConstant.nameMaxSize) {
+            return CustomerConstant.nameSizeMessage;
+        }
+        return null;
+    }
+
+    private static String telError(String tel) {
+        if (isBlank(tel)) {
+            return CustomerConstant.telBlankMessage;
+        }
+        if (!isDigits(tel)) {
+            return CustomerConstant.telPatternMessage;
+        }
+        if (tel.length() > CustomerConstant.telMaxSize) {
+            return CustomerConstant.telSizeMessage;
+        }
+        return null;
+    }
+
+    private static void validateName(String name, Errors errors) {
+        if (isBlank(name)) {
+            errors.rejectValue("name", "NotBlank", CustomerConstant.nameBlankMessage);
+        }
+        if (name != null && name.length() > CustomerConstant.nameMaxSize) {
+            errors.rejectValue("name", "Size", CustomerConstant.nameSizeMessage);
+        }
+    }
+
+    private static void validateTel(String tel, Errors errors) {
+        if (isBlank(tel)) {
+            errors.rejectValue("tel", "NotBlank", CustomerConstant.telBlankMessage);
+        }
+        if (tel != null && !isDigits(tel)) {
+            errors.rejectValue("tel", "Pattern", CustomerConstant.telPatternMessage);
+        }
+        if (tel != null && tel.length() > CustomerConstant.telMaxSize) {
+            errors.rejectValue("tel", "Size", CustomerConstant.telSizeMessage);
+        }
+    }
+
+    // @NotBlank 와 같이 trim() 기준(' ' 이하 문자)으로 비어 있는지 본다.
+    private static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // @Pattern(regexp = "[0-9]+")
+    private static boolean isDigits(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
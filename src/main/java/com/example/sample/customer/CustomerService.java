@@ -1,19 +1,62 @@
 package com.example.sample.customer;
 
+import com.example.sample.common.exception.Common412Exception;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional(readOnly = true)
+@Timed(value = "customer.service", histogram = true)
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final CustomerRequestValidator requestValidator;
+    // sample.customer-loader.enabled=true 일 때만 있다. 없으면 null
+    private final CustomerLoader customerLoader;
+    private final CustomerChangeLog changeLog;
 
-    public CustomerService(CustomerRepository customerRepository) {
+    public CustomerService(
+            CustomerRepository customerRepository,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            CustomerRequestValidator requestValidator,
+            ObjectProvider<CustomerLoader> customerLoader,
+            CustomerChangeLog changeLog
+    ) {
         this.customerRepository = customerRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.requestValidator = requestValidator;
+        this.customerLoader = customerLoader.getIfAvailable();
+        this.changeLog = changeLog;
     }
 
     public List<CustomerDTO> getCustomers() {
@@ -23,18 +66,206 @@ public class CustomerService {
                 .toList();
     }
 
-    public Optional<Customer> getCustomer(Long id) {
-        return customerRepository.findById(id);
+    public CustomerPageDTO getCustomers(long after, int limit) {
+        // 한 건 더 읽어서 다음 페이지가 있는지 판단한다.
+        List<CustomerDTO> customers = customerRepository.findPageAfter(after, PageRequest.ofSize(limit + 1));
+        if (customers.size() <= limit) {
+            return new CustomerPageDTO(customers, null);
+        }
+        List<CustomerDTO> page = customers.subList(0, limit);
+        return new CustomerPageDTO(page, page.get(limit - 1).getId());
+    }
+
+    public void streamCustomers(Consumer<CustomerDTO> consumer) {
+        try (Stream<CustomerDTO> stream = customerRepository.streamAll()) {
+            stream.forEach(consumer);
+        }
+    }
+
+    public List<CustomerDTO> searchCustomers(String tel, String namePrefix, int limit) {
+        if (tel != null) {
+            return customerRepository.findByTel(tel)
+                    .filter(customer -> namePrefix == null || customer.getName().startsWith(namePrefix))
+                    .map(List::of)
+                    .orElse(List.of());
+        }
+        return customerRepository.findByNameStartingWithOrderByNameAsc(namePrefix, PageRequest.ofSize(limit));
+    }
+
+    // 요청한 id 순서대로 돌려주고, 없는 id 는 빠진다. 중복된 id 는 한 번만 담는다.
+    public List<CustomerDTO> getCustomers(Collection<Long> ids) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        Map<Long, CustomerDTO> customers = new HashMap<>();
+        for (CustomerDTO customer : customerRepository.findAllByIdIn(uniqueIds)) {
+            customers.put(customer.getId(), customer);
+        }
+        List<CustomerDTO> result = new ArrayList<>(customers.size());
+        for (Long id : uniqueIds) {
+            CustomerDTO customer = customers.get(id);
+            if (customer != null) {
+                result.add(customer);
+            }
+        }
+        return result;
+    }
+
+    // 캐시에는 엔티티 대신 불변 CustomerSnapshot 을 넣는다. (CustomerSnapshot 참고)
+    // 없는 id 는 캐시하지 않는다. (이후 저장되는 고객이 가려지지 않도록)
+    // CustomerLoader 가 켜져 있으면 동시에 들어온 조회를 모아서 한 번의 in 쿼리로 읽는다.
+    // 로더는 자기 트랜잭션에서 읽으므로, 기다리는 동안 커넥션을 잡지 않도록 여기서는 트랜잭션을 열지 않는다.
+    @Transactional(propagation = Propagation.SUPPORTS)
+    @Cacheable(cacheNames = CustomerConstant.cacheName, key = "#id", unless = "#result == null")
+    public Optional<CustomerSnapshot> getCustomer(Long id) {
+        if (customerLoader != null) {
+            return customerLoader.load(id);
+        }
+        return customerRepository.findById(id).map(CustomerSnapshot::of);
     }
 
     @Transactional
-    public Customer mergeCustomer(Customer customer) {
-        return customerRepository.save(customer);
+    @CachePut(cacheNames = CustomerConstant.cacheName, key = "#result.id()")
+    public CustomerSnapshot mergeCustomer(Customer customer) {
+        Customer saved = customerRepository.save(customer);
+        changeLog.upserted(saved);
+        return CustomerSnapshot.of(saved);
+    }
+
+    // 요청을 읽으면서 batchChunkSize 건씩 별도 트랜잭션으로 저장한다.
+    // 검증 실패나 저장 실패는 해당 항목만 errors 에 남기고 나머지는 계속 진행한다.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CustomerBatchDTO saveCustomers(Iterator<CustomerRequest.CustomerInsertRequest> requests) {
+        CustomerBatchDTO result = new CustomerBatchDTO();
+        List<Customer> chunk = new ArrayList<>(CustomerConstant.batchChunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(CustomerConstant.batchChunkSize);
+
+        for (int index = 0; ; index++) {
+            CustomerRequest.CustomerInsertRequest request;
+            try {
+                if (!requests.hasNext()) {
+                    break;
+                }
+                request = requests.next();
+            } catch (RuntimeException e) {
+                // 깨진 JSON 이후로는 항목 경계를 알 수 없으므로 읽기를 멈춘다.
+                result.fail(index, CustomerConstant.batchParseMessage);
+                break;
+            }
+
+            String error = requestValidator.firstError(request);
+            if (error != null) {
+                result.fail(index, error);
+                continue;
+            }
+
+            chunk.add(request.toEntity());
+            chunkIndexes.add(index);
+            if (chunk.size() == CustomerConstant.batchChunkSize) {
+                saveChunk(chunk, chunkIndexes, result);
+            }
+        }
+        saveChunk(chunk, chunkIndexes, result);
+        return result;
+    }
+
+    private void saveChunk(List<Customer> chunk, List<Integer> chunkIndexes, CustomerBatchDTO result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        save(chunk, chunkIndexes, result);
+        chunk.clear();
+        chunkIndexes.clear();
     }
 
+    // 한 트랜잭션으로 저장하고, 실패하면 반으로 나눠 각각 새 트랜잭션으로 다시 저장한다.
+    // 문제 있는 항목 하나만 남을 때까지 나누므로 나머지 항목은 저장되고, 실패는 그 항목에만 남는다.
+    private void save(List<Customer> customers, List<Integer> indexes, CustomerBatchDTO result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                customerRepository.saveAll(customers);
+                changeLog.upserted(customers);
+                // open-in-view 로 요청 내내 살아있는 영속성 컨텍스트가 커지지 않도록 비운다.
+                entityManager.flush();
+                entityManager.clear();
+            });
+            result.saved(customers.size());
+        } catch (DataAccessException | PersistenceException e) {
+            if (customers.size() == 1) {
+                result.fail(indexes.get(0), isConstraintViolation(e) ? CustomerConstant.duplicateTelMessage : CustomerConstant.batchSaveMessage);
+                return;
+            }
+            // 롤백된 insert 에서 받은 id 를 지워야 다시 insert 된다. (id 가 있으면 merge 로 처리된다)
+            customers.forEach(customer -> customer.setId(null));
+            int half = customers.size() / 2;
+            save(customers.subList(0, half), indexes.subList(0, half), result);
+            save(customers.subList(half, customers.size()), indexes.subList(half, indexes.size()), result);
+        }
+    }
+
+    // 고객 테이블의 유니크 제약은 tel 하나뿐이다. (id 는 시퀀스)
+    // flush 에서 난 예외는 Hibernate 가 PersistenceException 으로 한 번 감싸므로 원인까지 본다.
+    private static boolean isConstraintViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException || cause instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // version 은 If-Match 로 받은 버전 (없으면 null)
+    // 반영된 row 가 없을 때 고객이 있으면 버전이 달라서이므로 412, 없으면 Optional.empty() 를 돌려준다.
+    @Transactional
+    @CachePut(cacheNames = CustomerConstant.cacheName, key = "#id", unless = "#result == null")
+    public Optional<CustomerSnapshot> putCustomer(Long id, Long version, CustomerRequest.CustomerPutUpdateRequest request) {
+        if (customerRepository.updateNameAndTel(id, version, request.getName(), request.getTel()) == 0) {
+            return notUpdated(id, version);
+        }
+        Optional<Customer> customer = version == null
+                ? customerRepository.findById(id)
+                : Optional.of(new Customer(id, request.getName(), request.getTel(), version + 1));
+        customer.ifPresent(changeLog::upserted);
+        return customer.map(CustomerSnapshot::of);
+    }
+
+    // 응답에 tel 이 필요해서 update 후 같은 트랜잭션에서 한 번 읽는다.
     @Transactional
-    public void deleteCustomer(Customer customer) {
-        customerRepository.delete(customer);
+    @CachePut(cacheNames = CustomerConstant.cacheName, key = "#id", unless = "#result == null")
+    public Optional<CustomerSnapshot> patchCustomer(Long id, Long version, CustomerRequest.CustomerPatchUpdateRequest request) {
+        if (customerRepository.updateName(id, version, request.getName()) == 0) {
+            return notUpdated(id, version);
+        }
+        Optional<Customer> customer = customerRepository.findById(id);
+        customer.ifPresent(changeLog::upserted);
+        return customer.map(CustomerSnapshot::of);
+    }
+
+    // 행을 잠그고 읽은 버전 + 1 을 변경 피드의 delete 에 싣는다.
+    // afterCommit 에서 붙는 seq 는 커밋 순서와 다를 수 있어 직전 수정(upsert)이 delete 뒤에 올 수 있는데,
+    // 구독자가 version 이 큰 쪽만 반영하면 delete 가 남는다.
+    @Transactional
+    @CacheEvict(cacheNames = CustomerConstant.cacheName, key = "#id")
+    public boolean deleteCustomer(Long id, Long version) {
+        Optional<Long> current = customerRepository.lockVersion(id);
+        if (current.isEmpty()) {
+            return false;
+        }
+        if (version != null && !version.equals(current.get())) {
+            throw new Common412Exception(CustomerConstant.preconditionFailedMessage);
+        }
+        customerRepository.deleteOne(id, current.get());
+        changeLog.deleted(id, current.get() + 1);
+        return true;
+    }
+
+    public String getCustomersETag() {
+        return "\"" + customerRepository.versionSummary() + "\"";
+    }
+
+    private Optional<CustomerSnapshot> notUpdated(Long id, Long version) {
+        if (version != null && customerRepository.existsById(id)) {
+            throw new Common412Exception(CustomerConstant.preconditionFailedMessage);
+        }
+        return Optional.empty();
     }
 
 }
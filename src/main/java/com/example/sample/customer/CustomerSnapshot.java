@@ -0,0 +1,19 @@
+package com.example.sample.customer;
+
+// 캐시(customer)와 CustomerLoader 가 여러 요청에 나눠 주는 고객 값.
+// Customer 엔티티는 setter 가 있고 영속성 컨텍스트에 묶여 있어서, 캐시에 그대로 넣으면 한 요청이 바꾼 값이 다른 요청에 보인다.
+// 캐시 밖으로 나가는 값은 모두 이 불변 레코드로 바꿔서 넘긴다.
+public record CustomerSnapshot(Long id, String name, String tel, long version) {
+
+    public static CustomerSnapshot of(Customer customer) {
+        return new CustomerSnapshot(customer.getId(), customer.getName(), customer.getTel(), customer.getVersion());
+    }
+
+    public CustomerSnapshot withName(String name) {
+        return new CustomerSnapshot(id, name, tel, version);
+    }
+
+    public CustomerDTO toDTO() {
+        return new CustomerDTO(id, name, tel);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.sample.customer;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Schema(description = "고객 내보내기/가져오기 결과")
+@Getter @AllArgsConstructor
+public class CustomerTransferDTO {
+
+    @Schema(description = "처리한 고객 수", example = "1000000")
+    private long rows;
+
+    @Schema(description = "걸린 시간 (ms)", example = "5321")
+    private long millis;
+
+}
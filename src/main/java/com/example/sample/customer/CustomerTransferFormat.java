@@ -0,0 +1,287 @@
+package com.example.sample.customer;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// 고객 내보내기/가져오기 파일 형식. 둘 다 gzip 으로 감싸고, 한 건씩 쓰고 읽어서 메모리 사용량이 행 수와 무관하다.
+//  csv : id,name,tel,version 헤더 + RFC 4180 따옴표 규칙. 빈 칸은 null, "" 는 빈 문자열.
+//  bin : "CUSTBIN1" 다음에 [1][id 차이][version][name][tel] 반복, 끝은 [0]. 숫자는 가변 길이 정수.
+public enum CustomerTransferFormat {
+
+    csv(".csv.gz") {
+        @Override
+        public RowWriter writer(OutputStream out) throws IOException {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(out, BUFFER_SIZE), StandardCharsets.UTF_8), BUFFER_SIZE);
+            writer.write(String.join(",", CSV_COLUMNS));
+            writer.write('\n');
+            return new RowWriter() {
+                @Override
+                public void write(Row row) throws IOException {
+                    writer.write(Long.toString(row.id()));
+                    writer.write(',');
+                    writeCsvField(writer, row.name());
+                    writer.write(',');
+                    writeCsvField(writer, row.tel());
+                    writer.write(',');
+                    writer.write(Long.toString(row.version()));
+                    writer.write('\n');
+                }
+
+                @Override
+                public void close() throws IOException {
+                    writer.close();
+                }
+            };
+        }
+
+        @Override
+        public RowReader reader(InputStream in) throws IOException {
+            Reader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(in, BUFFER_SIZE), StandardCharsets.UTF_8), BUFFER_SIZE);
+            String[] fields = new String[4];
+            if (!readCsvRecord(reader, fields) || !Arrays.equals(fields, CSV_COLUMNS)) {
+                throw new IOException("CSV 헤더가 올바르지 않습니다.");
+            }
+            return new RowReader() {
+                @Override
+                public Row read() throws IOException {
+                    if (!readCsvRecord(reader, fields)) {
+                        return null;
+                    }
+                    return new Row(Long.parseLong(fields[0]), fields[1], fields[2], Long.parseLong(fields[3]));
+                }
+
+                @Override
+                public void close() throws IOException {
+                    reader.close();
+                }
+            };
+        }
+    },
+
+    bin(".bin.gz") {
+        @Override
+        public RowWriter writer(OutputStream out) throws IOException {
+            OutputStream data = new BufferedOutputStream(new GZIPOutputStream(out, BUFFER_SIZE), BUFFER_SIZE);
+            data.write(BIN_MAGIC);
+            return new RowWriter() {
+                private long lastId;
+
+                @Override
+                public void write(Row row) throws IOException {
+                    data.write(1);
+                    writeVarLong(data, zigZag(row.id() - lastId));
+                    writeVarLong(data, row.version());
+                    writeString(data, row.name());
+                    writeString(data, row.tel());
+                    lastId = row.id();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    data.write(0);
+                    data.close();
+                }
+            };
+        }
+
+        @Override
+        public RowReader reader(InputStream in) throws IOException {
+            DataInputStream data = new DataInputStream(new BufferedInputStream(new GZIPInputStream(in, BUFFER_SIZE), BUFFER_SIZE));
+            byte[] magic = new byte[BIN_MAGIC.length];
+            data.readFully(magic);
+            if (!Arrays.equals(magic, BIN_MAGIC)) {
+                throw new IOException("바이너리 헤더가 올바르지 않습니다.");
+            }
+            return new RowReader() {
+                private long lastId;
+
+                @Override
+                public Row read() throws IOException {
+                    if (data.readByte() == 0) {
+                        return null;
+                    }
+                    lastId += unZigZag(readVarLong(data));
+                    long version = readVarLong(data);
+                    return new Row(lastId, readString(data), readString(data), version);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    data.close();
+                }
+            };
+        }
+    };
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String[] CSV_COLUMNS = {"id", "name", "tel", "version"};
+    private static final byte[] BIN_MAGIC = "CUSTBIN1".getBytes(StandardCharsets.US_ASCII);
+    // 이름과 번호는 몇 글자뿐이다. 올린 파일의 길이 값을 그대로 믿고 큰 배열을 만들지 않도록 한 칸을 이만큼으로 막는다.
+    private static final int MAX_FIELD_LENGTH = 1024;
+
+    private final String extension;
+
+    CustomerTransferFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String fileName() {
+        return "customer" + extension;
+    }
+
+    public abstract RowWriter writer(OutputStream out) throws IOException;
+
+    public abstract RowReader reader(InputStream in) throws IOException;
+
+    // 파일 이름(customer.csv.gz / customer.bin.gz)으로 형식을 고른다.
+    public static CustomerTransferFormat of(String fileName) {
+        for (CustomerTransferFormat format : values()) {
+            if (fileName.endsWith(format.extension)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("지원하지 않는 파일 형식입니다: " + fileName);
+    }
+
+    public record Row(long id, String name, String tel, long version) {
+    }
+
+    public interface RowWriter extends Closeable {
+        void write(Row row) throws IOException;
+    }
+
+    public interface RowReader extends Closeable {
+        // 더 읽을 행이 없으면 null
+        Row read() throws IOException;
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.isEmpty();
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    // 한 레코드를 fields 에 채운다. 파일 끝이면 false.
+    private static boolean readCsvRecord(Reader reader, String[] fields) throws IOException {
+        StringBuilder field = new StringBuilder();
+        int index = 0;
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        int c = reader.read();
+        if (c == -1) {
+            return false;
+        }
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new EOFException("CSV 따옴표가 닫히지 않았습니다.");
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == '"') {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',' || c == '\n' || c == -1) {
+                if (index == fields.length) {
+                    throw new IOException("CSV 컬럼 수가 올바르지 않습니다.");
+                }
+                fields[index++] = field.length() == 0 && !wasQuoted ? null : field.toString();
+                field.setLength(0);
+                wasQuoted = false;
+                if (c != ',') {
+                    if (index != fields.length) {
+                        throw new IOException("CSV 컬럼 수가 올바르지 않습니다.");
+                    }
+                    return true;
+                }
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            if (field.length() > MAX_FIELD_LENGTH) {
+                throw new IOException("CSV 값이 너무 깁니다.");
+            }
+            c = reader.read();
+        }
+    }
+
+    // 문자열은 [UTF-8 바이트 수 + 1] 다음에 바이트. 0 이면 null.
+    private static void writeString(OutputStream data, String value) throws IOException {
+        if (value == null) {
+            data.write(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(data, bytes.length + 1L);
+        data.write(bytes);
+    }
+
+    private static String readString(DataInputStream data) throws IOException {
+        long length = readVarLong(data);
+        if (length == 0) {
+            return null;
+        }
+        if (length < 0 || length - 1 > MAX_FIELD_LENGTH) {
+            throw new IOException("문자열 길이가 올바르지 않습니다: " + length);
+        }
+        byte[] bytes = new byte[(int) length - 1];
+        data.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // 7 비트씩 끊어 쓰는 가변 길이 정수 (작은 값은 1 바이트)
+    private static void writeVarLong(OutputStream data, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            data.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        data.write((int) value);
+    }
+
+    private static long readVarLong(DataInputStream data) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = data.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("가변 길이 정수가 너무 깁니다.");
+    }
+
+    // id 순서로 내보내므로 앞 행과의 차이만 쓴다. 순서가 섞인 파일도 읽을 수 있게 음수는 zigzag 로 바꾼다.
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
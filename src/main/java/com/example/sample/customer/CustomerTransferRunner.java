@@ -0,0 +1,62 @@
+package com.example.sample.customer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// SampleApplication 을 명령행 도구로 쓸 때: 파일 이름(.csv.gz / .bin.gz)으로 형식을 정하고 끝나면 종료한다.
+//  java -jar target/sample-0.0.1-SNAPSHOT.jar --spring.main.web-application-type=none \
+//       --spring.datasource.url=<대상 DB> --spring.jpa.hibernate.ddl-auto=none \
+//       --sample.transfer.admin.enabled=true --sample.transfer.export=customer.csv.gz
+//  (가져오기는 --sample.transfer.import=customer.csv.gz)
+@Component
+@ConditionalOnProperty(name = "sample.transfer.admin.enabled", havingValue = "true")
+public class CustomerTransferRunner implements ApplicationRunner {
+
+    private final CustomerTransferService customerTransferService;
+    private final ConfigurableApplicationContext context;
+    private final String exportPath;
+    private final String importPath;
+
+    public CustomerTransferRunner(
+            CustomerTransferService customerTransferService,
+            ConfigurableApplicationContext context,
+            @Value("${sample.transfer.export:}") String exportPath,
+            @Value("${sample.transfer.import:}") String importPath
+    ) {
+        this.customerTransferService = customerTransferService;
+        this.context = context;
+        this.exportPath = exportPath;
+        this.importPath = importPath;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (exportPath.isEmpty() && importPath.isEmpty()) {
+            return;
+        }
+        // 둘 다 주면 가져온 뒤 내보낸다 (형식 변환).
+        if (!importPath.isEmpty()) {
+            Path path = Path.of(importPath);
+            try (InputStream in = Files.newInputStream(path)) {
+                customerTransferService.importCustomers(CustomerTransferFormat.of(path.toString()), in);
+            }
+        }
+        if (!exportPath.isEmpty()) {
+            Path path = Path.of(exportPath);
+            try (OutputStream out = Files.newOutputStream(path)) {
+                customerTransferService.exportCustomers(CustomerTransferFormat.of(path.toString()), out);
+            }
+        }
+        System.exit(SpringApplication.exit(context));
+    }
+}
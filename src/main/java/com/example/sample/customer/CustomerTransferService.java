@@ -0,0 +1,214 @@
+package com.example.sample.customer;
+
+import com.example.sample.common.exception.Common400Exception;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// customer_tb 전체를 id 순서로 파일(스트림)에 내보내고, 파일에서 배치 insert 로 가져온다.
+// 입출력은 평범한 InputStream / OutputStream 이다. 서블릿 본문, 파일, 파이프를 모두 그대로 넘긴다.
+// 한 행씩 읽고 쓰며 배치 크기만큼만 들고 있으므로 테이블 크기와 관계없이 메모리 사용량이 일정하다.
+// 진행 상황은 customer.transfer.rows 카운터와 customer.transfer 롱 태스크 타이머로 볼 수 있다.
+// 테이블 전체를 읽고 쓰는 관리 기능이므로 sample.transfer.admin.enabled=true 일 때만 만든다.
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "sample.transfer.admin.enabled", havingValue = "true")
+@Transactional(readOnly = true)
+public class CustomerTransferService {
+
+    private static final String exportSql = "select id, name, tel, version from customer_tb order by id";
+    private static final String insertSql = "insert into customer_tb (id, name, tel, version) values (?, ?, ?, ?)";
+    private static final int progressLogRows = 100_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final CustomerChangeLog changeLog;
+    private final CustomerRequestValidator requestValidator;
+    private final String sequenceNextValueSql;
+    private final CacheManager cacheManager;
+
+    public CustomerTransferService(DataSource dataSource, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                   CustomerChangeLog changeLog, CustomerRequestValidator requestValidator,
+                                   EntityManagerFactory entityManagerFactory, ObjectProvider<CacheManager> cacheManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(CustomerConstant.streamFetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.changeLog = changeLog;
+        this.requestValidator = requestValidator;
+        this.sequenceNextValueSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+                .getSequenceSupport().getSequenceNextValString(CustomerConstant.sequenceName);
+        this.cacheManager = cacheManager.getIfAvailable();
+    }
+
+    // 읽기 전용 트랜잭션 안에서 읽어야 PostgreSQL 같은 드라이버도 fetchSize 만큼씩 가져온다.
+    public CustomerTransferDTO exportCustomers(CustomerTransferFormat format, OutputStream out) throws IOException {
+        Progress progress = new Progress("export");
+        try (CustomerTransferFormat.RowWriter writer = format.writer(out)) {
+            jdbcTemplate.query(exportSql, resultSet -> {
+                try {
+                    writer.write(new CustomerTransferFormat.Row(
+                            resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3), resultSet.getLong(4)
+                    ));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                progress.add(1);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            progress.stop();
+        }
+        return progress.result();
+    }
+
+    // 배치 크기마다 커밋한다. 실패하면 그 전 배치까지는 들어간 상태로 멈춘다.
+    // 각 행은 POST /customer 와 같은 규칙(CustomerRequestValidator)으로 검사하고, 틀린 행이 있으면 몇 번째 행인지 400 으로 알린다.
+    // id 는 파일 그대로 쓰고, 끝나면 customer_seq 를 가져온 최대 id 뒤로 옮긴다.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CustomerTransferDTO importCustomers(CustomerTransferFormat format, InputStream in) {
+        Progress progress = new Progress("import");
+        List<Object[]> chunk = new ArrayList<>(CustomerConstant.batchChunkSize);
+        RuntimeException failure = null;
+        try (CustomerTransferFormat.RowReader reader = format.reader(in)) {
+            long number = 0;
+            for (CustomerTransferFormat.Row row = reader.read(); row != null; row = reader.read()) {
+                number++;
+                String error = requestValidator.firstError(new CustomerRequest.CustomerInsertRequest(row.name(), row.tel()));
+                if (error != null) {
+                    throw Common400Exception.stackless(CustomerConstant.importRowMessage.formatted(number, error));
+                }
+                chunk.add(new Object[]{row.id(), row.name(), row.tel(), row.version()});
+                if (chunk.size() == CustomerConstant.batchChunkSize) {
+                    insertChunk(chunk, progress);
+                }
+            }
+            insertChunk(chunk, progress);
+        } catch (Common400Exception e) {
+            log.warn("고객 가져오기 검증 실패 - {} 건 이후: {}", progress.rows, e.getMessage());
+            failure = e;
+        } catch (DataAccessException e) {
+            log.warn("고객 가져오기 실패 - {} 건 이후", progress.rows, e);
+            failure = Common400Exception.stackless(CustomerConstant.importFailedMessage);
+        } catch (IOException | RuntimeException e) {
+            log.warn("고객 가져오기 파일 읽기 실패 - {} 건 이후", progress.rows, e);
+            failure = Common400Exception.stackless(CustomerConstant.importParseMessage);
+        } finally {
+            progress.stop();
+        }
+
+        // 실패했어도 그 전 배치까지는 커밋됐으므로 시퀀스와 변경 피드를 맞춘다.
+        // 여기서 난 오류가 원래 실패를 가리지 않도록 실패가 있으면 suppressed 로만 붙인다.
+        if (progress.rows > 0) {
+            try {
+                moveSequence();
+            } catch (DataAccessException e) {
+                if (failure == null) {
+                    throw e;
+                }
+                failure.addSuppressed(e);
+            } finally {
+                // 가져온 행을 변경 피드에 하나씩 싣지 않는다. 구독자는 410 을 받고 전체 목록을 다시 읽는다.
+                changeLog.invalidate();
+                // JDBC 로 바로 넣었으므로 customer 캐시(@Cacheable)도 비워서 다음 조회가 DB 를 읽게 한다.
+                clearCache();
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return progress.result();
+    }
+
+    private void clearCache() {
+        Cache cache = cacheManager != null ? cacheManager.getCache(CustomerConstant.cacheName) : null;
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private void insertChunk(List<Object[]> chunk, Progress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(insertSql, chunk));
+        progress.add(chunk.size());
+        chunk.clear();
+    }
+
+    // Hibernate pooled 옵티마이저는 시퀀스 값 하나로 allocationSize 개의 id 를 쓰므로 그만큼 더 띄운다.
+    // 다음 값 조회는 Hibernate dialect 의 구문(H2 next value for, PostgreSQL nextval 등)을 쓴다.
+    // alter sequence ... restart with 는 SQL 표준 구문으로 H2, PostgreSQL 에서 동작한다.
+    private void moveSequence() {
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from customer_tb", Long.class);
+        if (maxId == null) {
+            return;
+        }
+        long next = maxId + CustomerConstant.idAllocationSize + 1;
+        Long current = jdbcTemplate.queryForObject(sequenceNextValueSql, Long.class);
+        if (current != null && current < next) {
+            jdbcTemplate.execute("alter sequence " + CustomerConstant.sequenceName + " restart with " + next);
+        }
+    }
+
+    private class Progress {
+
+        private final String operation;
+        private final Counter counter;
+        private final LongTaskTimer.Sample task;
+        private final long start = System.nanoTime();
+        private long rows;
+
+        Progress(String operation) {
+            this.operation = operation;
+            this.counter = Counter.builder("customer.transfer.rows").tag("operation", operation).register(meterRegistry);
+            this.task = LongTaskTimer.builder("customer.transfer").tag("operation", operation).register(meterRegistry).start();
+        }
+
+        void add(int count) {
+            long before = rows;
+            rows += count;
+            counter.increment(count);
+            if (rows / progressLogRows != before / progressLogRows) {
+                log.info("고객 {} 진행 중 - {} 건, {}ms", operation, rows, millis());
+            }
+        }
+
+        void stop() {
+            task.stop();
+            log.info("고객 {} 종료 - {} 건, {}ms", operation, rows, millis());
+        }
+
+        CustomerTransferDTO result() {
+            return new CustomerTransferDTO(rows, millis());
+        }
+
+        private long millis() {
+            return (System.nanoTime() - start) / 1_000_000;
+        }
+    }
+}
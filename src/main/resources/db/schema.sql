@@ -0,0 +1,12 @@
+create sequence if not exists customer_seq start with 1 increment by 50;
+
+create table if not exists customer_tb (
+    id bigint not null,
+    name varchar(255),
+    tel varchar(255),
+    version bigint not null,
+    primary key (id),
+    constraint customer_tel_uk unique (tel)
+);
+
+create index if not exists customer_name_idx on customer_tb (name);
@@ -0,0 +1,100 @@
+package com.example.sample;
+
+import com.example.sample.customer.CustomerConstant;
+import com.example.sample.customer.CustomerDTO;
+import com.example.sample.reactive.ReactiveSampleApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(
+        classes = ReactiveSampleApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {ReactiveSampleApplication.configName, ReactiveSampleApplication.webApplicationType, "spring.sql.init.data-locations=classpath:data/data.sql"}
+)
+class ReactiveCustomerControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void getCustomer() {
+        webTestClient.get().uri("/customer/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("박진희")
+                .jsonPath("$.tel").isEqualTo("01040234504");
+    }
+
+    @Test
+    void getNoCustomer() {
+        webTestClient.get().uri("/customer/0")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo(CustomerConstant.notFoundMessage);
+    }
+
+    @Test
+    void streamCustomers() {
+        Flux<CustomerDTO> customers = webTestClient.get().uri("/customer")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(CustomerDTO.class)
+                .getResponseBody();
+
+        assertEquals(1L, customers.blockFirst().getId());
+    }
+
+    @Test
+    void saveValid() {
+        webTestClient.post().uri("/customer")
+                .bodyValue(Map.of("name", "", "tel", "01012345678"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo(CustomerConstant.nameBlankMessage);
+
+        webTestClient.post().uri("/customer")
+                .bodyValue(Map.of("name", "홍길동", "tel", "01040234504"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo(CustomerConstant.duplicateTelMessage);
+    }
+
+    @Test
+    void saveAndDelete() {
+        CustomerDTO saved = webTestClient.post().uri("/customer")
+                .bodyValue(Map.of("name", "홍길동", "tel", "01099998888"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(CustomerDTO.class)
+                .returnResult()
+                .getResponseBody();
+
+        webTestClient.patch().uri("/customer/{id}", saved.getId())
+                .bodyValue(Map.of("name", "김길동"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("김길동");
+
+        webTestClient.delete().uri("/customer/{id}", saved.getId())
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.delete().uri("/customer/{id}", saved.getId())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
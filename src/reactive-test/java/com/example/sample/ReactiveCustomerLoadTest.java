@@ -0,0 +1,22 @@
+package com.example.sample;
+
+import com.example.sample.reactive.ReactiveSampleApplication;
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+
+// CustomerLoadTest 와 같은 GET/POST 혼합 부하를 WebFlux + R2DBC 버전에 준다.
+//  ./mvnw -Preactive,load-test test -Dload.concurrency=1000
+@Tag("load")
+@SpringBootTest(
+        classes = ReactiveSampleApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {ReactiveSampleApplication.configName, ReactiveSampleApplication.webApplicationType, "spring.sql.init.data-locations=classpath:data/data.sql"}
+)
+public class ReactiveCustomerLoadTest extends CustomerLoadTest {
+
+    // Netty 이벤트 루프 스레드
+    @Override
+    protected String serverThreadPrefix() {
+        return "reactor-http-";
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.sample.reactive;
+
+import com.example.sample.common.exception.Common400Exception;
+import com.example.sample.customer.CustomerConstant;
+import com.example.sample.customer.CustomerDTO;
+import com.example.sample.customer.CustomerRequest;
+import com.example.sample.customer.CustomerRequestValidator;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// CustomerController 와 같은 경로, DTO, 검증 메시지, ProblemDetail(CommonAdvice) 를 쓰는 WebFlux 버전.
+// 요청 스레드를 붙잡지 않으므로 동시 연결이 많아도 스레드 수가 늘지 않는다.
+@RestController
+@RequestMapping(CustomerConstant.url)
+public class ReactiveCustomerController {
+
+    private final ReactiveCustomerRepository customerRepository;
+    private final CustomerRequestValidator requestValidator;
+
+    public ReactiveCustomerController(ReactiveCustomerRepository customerRepository, CustomerRequestValidator requestValidator) {
+        this.customerRepository = customerRepository;
+        this.requestValidator = requestValidator;
+    }
+
+    // NDJSON 으로 요청하면 한 건씩 흘려보내고, 클라이언트가 느리면 DB 읽기도 그만큼 늦춘다(backpressure).
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<CustomerDTO> getCustomers() {
+        return customerRepository.findAll();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<CustomerDTO> getCustomer(@PathVariable Long id) {
+        return customerRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> Common400Exception.stackless(CustomerConstant.notFoundMessage)));
+    }
+
+    @PostMapping
+    public Mono<CustomerDTO> saveCustomer(@RequestBody CustomerRequest.CustomerInsertRequest request) {
+        String error = requestValidator.firstError(request);
+        if (error != null) {
+            return Mono.error(Common400Exception.stackless(error));
+        }
+        return customerRepository.insert(request.getName(), request.getTel())
+                .onErrorMap(DataIntegrityViolationException.class, e -> Common400Exception.stackless(CustomerConstant.duplicateTelMessage));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<CustomerDTO> putCustomer(@PathVariable Long id, @RequestBody CustomerRequest.CustomerPutUpdateRequest request) {
+        String error = requestValidator.firstError(request);
+        if (error != null) {
+            return Mono.error(Common400Exception.stackless(error));
+        }
+        return customerRepository.updateNameAndTel(id, request.getName(), request.getTel())
+                .onErrorMap(DataIntegrityViolationException.class, e -> Common400Exception.stackless(CustomerConstant.duplicateTelMessage))
+                .flatMap(updated -> updated == 0
+                        ? Mono.error(Common400Exception.stackless(CustomerConstant.notFoundMessage))
+                        : Mono.just(new CustomerDTO(id, request.getName(), request.getTel())));
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<CustomerDTO> patchCustomer(@PathVariable Long id, @RequestBody CustomerRequest.CustomerPatchUpdateRequest request) {
+        String error = requestValidator.firstError(request);
+        if (error != null) {
+            return Mono.error(Common400Exception.stackless(error));
+        }
+        return customerRepository.updateName(id, request.getName())
+                .flatMap(updated -> updated == 0
+                        ? Mono.error(Common400Exception.stackless(CustomerConstant.notFoundMessage))
+                        : customerRepository.findById(id));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<Void> deleteCustomer(@PathVariable Long id) {
+        return customerRepository.delete(id)
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.error(Common400Exception.stackless(CustomerConstant.notFoundMessage))
+                        : Mono.empty());
+    }
+}
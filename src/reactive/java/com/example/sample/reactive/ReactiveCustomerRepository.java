@@ -0,0 +1,73 @@
+package com.example.sample.reactive;
+
+import com.example.sample.customer.CustomerDTO;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// customer_tb 를 R2DBC 로 읽고 쓴다. 스키마는 db/schema.sql (JPA Customer 엔티티와 같은 테이블).
+@Repository
+public class ReactiveCustomerRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveCustomerRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<CustomerDTO> findAll() {
+        return databaseClient.sql("select id, name, tel from customer_tb order by id")
+                .map(ReactiveCustomerRepository::toDTO)
+                .all();
+    }
+
+    public Mono<CustomerDTO> findById(Long id) {
+        return databaseClient.sql("select id, name, tel from customer_tb where id = :id")
+                .bind("id", id)
+                .map(ReactiveCustomerRepository::toDTO)
+                .one();
+    }
+
+    public Mono<CustomerDTO> insert(String name, String tel) {
+        return databaseClient.sql("select next value for customer_seq")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(id -> databaseClient.sql("insert into customer_tb (id, name, tel, version) values (:id, :name, :tel, 0)")
+                        .bind("id", id)
+                        .bind("name", name)
+                        .bind("tel", tel)
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(new CustomerDTO(id, name, tel)));
+    }
+
+    public Mono<Long> updateNameAndTel(Long id, String name, String tel) {
+        return databaseClient.sql("update customer_tb set name = :name, tel = :tel, version = version + 1 where id = :id")
+                .bind("id", id)
+                .bind("name", name)
+                .bind("tel", tel)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> updateName(Long id, String name) {
+        return databaseClient.sql("update customer_tb set name = :name, version = version + 1 where id = :id")
+                .bind("id", id)
+                .bind("name", name)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> delete(Long id) {
+        return databaseClient.sql("delete from customer_tb where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static CustomerDTO toDTO(Readable row) {
+        return new CustomerDTO(row.get("id", Long.class), row.get("name", String.class), row.get("tel", String.class));
+    }
+}
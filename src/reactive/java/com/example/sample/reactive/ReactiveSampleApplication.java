@@ -0,0 +1,38 @@
+package com.example.sample.reactive;
+
+import com.example.sample.common.exception.CommonAdvice;
+import com.example.sample.customer.CustomerDTOSerializer;
+import com.example.sample.customer.CustomerRequestValidator;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+// 고객 API 의 WebFlux + R2DBC 버전. SampleApplication 과 따로 띄운다(기본 8081 포트, reactive.yml).
+//  ./mvnw -Preactive package && java -jar target/sample-0.0.1-SNAPSHOT.jar   (pom.xml 의 reactive 프로필, 소스는 src/reactive)
+// @SpringBootApplication 을 쓰면 테스트가 @SpringBootConfiguration 을 두 개 찾게 되므로 풀어서 선언한다.
+@Configuration(proxyBeanMethods = false)
+@EnableAutoConfiguration
+@ComponentScan
+@Import({CommonAdvice.class, CustomerRequestValidator.class, CustomerDTOSerializer.class})
+public class ReactiveSampleApplication {
+
+    // 테스트(@SpringBootTest properties)에서도 같이 쓴다. 웹 타입을 주지 않으면 클래스패스만 보고 서블릿으로 뜬다.
+    public static final String configName = "spring.config.name=reactive";
+    public static final String webApplicationType = "spring.main.web-application-type=reactive";
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveSampleApplication.class)
+                .properties(configName, webApplicationType)
+                .run(args);
+    }
+
+    // 클래스패스에 톰캣도 있으므로 Netty 이벤트 루프를 쓰도록 직접 고른다.
+    @Bean
+    NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
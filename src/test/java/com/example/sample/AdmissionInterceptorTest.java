@@ -0,0 +1,139 @@
+package com.example.sample;
+
+import com.example.sample.common.admission.AdaptiveConcurrencyLimiter;
+import com.example.sample.common.admission.AdmissionConfig;
+import com.example.sample.common.admission.AdmissionInterceptor;
+import com.example.sample.common.admission.TokenBucket;
+import com.example.sample.customer.CustomerController;
+import com.example.sample.customer.CustomerJsonCache;
+import com.example.sample.customer.CustomerRequestValidator;
+import com.example.sample.customer.CustomerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.filter.ForwardedHeaderFilter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = CustomerController.class, properties = {
+        "sample.admission.enabled=true", "sample.admission.client-rate=1", "sample.admission.client-burst=2"
+})
+@MockBean(JpaMetamodelMappingContext.class)
+// server.forward-headers-strategy=framework 일 때 Boot 가 등록하는 ForwardedHeaderFilter 를 같이 올린다.
+@Import({AdmissionConfig.class, CustomerRequestValidator.class, CustomerJsonCache.class, SimpleMeterRegistry.class, ForwardedHeaderFilter.class})
+class AdmissionInterceptorTest {
+
+    private static final long second = TimeUnit.SECONDS.toNanos(1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CustomerService customerService;
+
+    @Test
+    void clientLimit() throws Exception {
+        given(customerService.getCustomers()).willReturn(List.of());
+
+        mockMvc.perform(get("/customer")).andExpect(status().isOk());
+        mockMvc.perform(get("/customer")).andExpect(status().isOk());
+        // 버스트 2 를 다 쓰면 서비스까지 가지 않고 429 로 거절된다.
+        mockMvc.perform(get("/customer"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.status").value(429));
+
+        verify(customerService, times(2)).getCustomers();
+    }
+
+    @Test
+    void clientLimitByForwardedAddress() throws Exception {
+        given(customerService.getCustomers()).willReturn(List.of());
+
+        // 프록시 뒤에서는 X-Forwarded-For 의 클라이언트마다 따로 센다.
+        mockMvc.perform(get("/customer").header("X-Forwarded-For", "203.0.113.1")).andExpect(status().isOk());
+        mockMvc.perform(get("/customer").header("X-Forwarded-For", "203.0.113.1")).andExpect(status().isOk());
+        mockMvc.perform(get("/customer").header("X-Forwarded-For", "203.0.113.1")).andExpect(status().isTooManyRequests());
+        mockMvc.perform(get("/customer").header("X-Forwarded-For", "203.0.113.2")).andExpect(status().isOk());
+    }
+
+    @Test
+    void disabledByDefault() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(AdmissionConfig.class)
+                .withBean(SimpleMeterRegistry.class)
+                .run(context -> assertTrue(context.getBeansOfType(AdmissionInterceptor.class).isEmpty()));
+    }
+
+    @Test
+    void tokenBucket() {
+        TokenBucket bucket = new TokenBucket(10, 2, 0);
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        // 초당 10 개이므로 다음 토큰까지 100ms
+        assertEquals(second / 10, bucket.tryAcquire(0), 1);
+        assertEquals(0, bucket.tryAcquire(second / 10));
+        // 오래 쉬어도 burst 이상 쌓이지 않는다.
+        assertEquals(2, bucket.available(10 * second), 0.0001);
+    }
+
+    @Test
+    void concurrencyLimit() {
+        long window = TimeUnit.MILLISECONDS.toNanos(100);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 100, window, 0);
+        long now = 0;
+
+        // 한도까지 차서 10ms 로 응답하면 한도가 늘어난다.
+        now = run(limiter, now, window, 20, TimeUnit.MILLISECONDS.toNanos(10));
+        int grown = limiter.getLimit();
+        assertTrue(grown > 20, "limit " + grown);
+
+        // 한도를 넘는 요청은 받지 않는다.
+        for (int i = 0; i < grown; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        for (int i = 0; i < grown; i++) {
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(10), now);
+        }
+
+        // DB 가 느려져서 응답이 10 배 느려지면 한도가 줄어든다.
+        run(limiter, now, window, 20, TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(limiter.getLimit() < grown * 3 / 4, "limit " + limiter.getLimit() + " grown " + grown);
+        assertTrue(limiter.getLimit() >= 4);
+    }
+
+    // window 마다 한도만큼 동시에 받아서 rtt 로 끝내는 것을 반복한다.
+    private static long run(AdaptiveConcurrencyLimiter limiter, long now, long window, int windows, long rtt) {
+        for (int w = 0; w < windows; w++) {
+            now += window;
+            int admitted = 0;
+            while (limiter.tryAcquire()) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(rtt, now);
+            }
+        }
+        return now;
+    }
+}
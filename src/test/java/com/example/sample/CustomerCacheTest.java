@@ -0,0 +1,161 @@
+package com.example.sample;
+
+import com.example.sample.common.exception.Common412Exception;
+import com.example.sample.customer.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// customer 캐시가 실제 Caffeine 캐시와 @Cacheable / @CachePut / @CacheEvict 프록시로 동작하는지 확인한다.
+// 가져오기(import)가 캐시를 거치지 않고 넣은 고객도 확인하도록 transfer 관리 기능을 켠다.
+@SpringBootTest(properties = "sample.transfer.admin.enabled=true")
+@AutoConfigureMockMvc
+class CustomerCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerTransferService transferService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void getCustomerHit() {
+        CustomerSnapshot saved = customerService.mergeCustomer(new Customer(null, "박진희", "01066660001"));
+        cache().evict(saved.id());
+        double misses = gets("miss");
+        double hits = gets("hit");
+
+        CustomerSnapshot first = customerService.getCustomer(saved.id()).orElseThrow();
+        CustomerSnapshot second = customerService.getCustomer(saved.id()).orElseThrow();
+
+        // 두 번째는 캐시에서 같은 값을 그대로 돌려준다.
+        assertSame(first, second);
+        assertEquals(misses + 1, gets("miss"));
+        assertEquals(hits + 1, gets("hit"));
+    }
+
+    @Test
+    void getNoCustomerNotCached() {
+        assertTrue(customerService.getCustomer(-1L).isEmpty());
+        assertNull(cache().get(-1L));
+    }
+
+    @Test
+    void updateCustomerCachePut() {
+        // 저장하면 조회 없이 바로 캐시에 들어간다.
+        CustomerSnapshot saved = customerService.mergeCustomer(new Customer(null, "박진희", "01066660002"));
+        assertEquals(saved, cached(saved.id()));
+
+        CustomerSnapshot put = customerService.putCustomer(saved.id(), saved.version(),
+                new CustomerRequest.CustomerPutUpdateRequest("유광열", "01066660003")).orElseThrow();
+        assertEquals(new CustomerSnapshot(saved.id(), "유광열", "01066660003", saved.version() + 1), put);
+        assertEquals(put, cached(saved.id()));
+
+        CustomerSnapshot patched = customerService.patchCustomer(saved.id(), put.version(),
+                new CustomerRequest.CustomerPatchUpdateRequest("조현우")).orElseThrow();
+        assertEquals("조현우", patched.name());
+        assertEquals(put.version() + 1, patched.version());
+        assertEquals(patched, cached(saved.id()));
+
+        // 캐시에서 꺼낸 값이 다음 조회에 그대로 보인다.
+        assertSame(cached(saved.id()), customerService.getCustomer(saved.id()).orElseThrow());
+    }
+
+    @Test
+    void updateCustomerConflictKeepsCache() {
+        CustomerSnapshot saved = customerService.mergeCustomer(new Customer(null, "박진희", "01066660004"));
+
+        // version 이 맞지 않아 수정하지 못하면 캐시를 건드리지 않는다.
+        assertThrows(Common412Exception.class, () -> customerService.patchCustomer(saved.id(), saved.version() + 10,
+                new CustomerRequest.CustomerPatchUpdateRequest("유광열")));
+        assertEquals(saved, cached(saved.id()));
+    }
+
+    @Test
+    void deleteCustomerCacheEvict() {
+        CustomerSnapshot saved = customerService.mergeCustomer(new Customer(null, "박진희", "01066660005"));
+        assertEquals(saved, cached(saved.id()));
+
+        assertTrue(customerService.deleteCustomer(saved.id(), null));
+        assertNull(cache().get(saved.id()));
+        assertTrue(customerService.getCustomer(saved.id()).isEmpty());
+    }
+
+    @Test
+    void deleteAndImportSameVersion() throws Exception {
+        CustomerSnapshot saved = customerService.mergeCustomer(new Customer(null, "박진희", "01066660006"));
+        this.mockMvc.perform(get("/customer/{id}", saved.id()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("박진희"));
+        assertTrue(customerService.deleteCustomer(saved.id(), null));
+
+        // 같은 id / version 의 다른 고객을 파일로 다시 넣으면 지워진 고객의 JSON 이 아니라 새 고객을 돌려준다.
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        try (var writer = CustomerTransferFormat.bin.writer(file)) {
+            writer.write(new CustomerTransferFormat.Row(saved.id(), "유광열", "01066660007", saved.version()));
+        }
+        transferService.importCustomers(CustomerTransferFormat.bin, new ByteArrayInputStream(file.toByteArray()));
+
+        this.mockMvc.perform(get("/customer/{id}", saved.id()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + saved.version() + "\""))
+                .andExpect(jsonPath("$.name").value("유광열"))
+                .andExpect(jsonPath("$.tel").value("01066660007"));
+    }
+
+    @Test
+    void importClearsCache() throws Exception {
+        CustomerSnapshot saved = customerService.mergeCustomer(new Customer(null, "박진희", "01066660008"));
+        assertEquals(saved, cached(saved.id()));
+
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        try (var writer = CustomerTransferFormat.bin.writer(file)) {
+            writer.write(new CustomerTransferFormat.Row(saved.id() + 10_000, "유광열", "01066660009", 0L));
+        }
+        transferService.importCustomers(CustomerTransferFormat.bin, new ByteArrayInputStream(file.toByteArray()));
+        assertNull(cache().get(saved.id()));
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CustomerConstant.cacheName);
+    }
+
+    private CustomerSnapshot cached(Long id) {
+        return cache().get(id, CustomerSnapshot.class);
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", CustomerConstant.cacheName)
+                .tag("result", result)
+                .functionCounter().count();
+    }
+}
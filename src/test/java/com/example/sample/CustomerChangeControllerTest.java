@@ -0,0 +1,111 @@
+package com.example.sample;
+
+import com.example.sample.customer.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(CustomerChangeController.class)
+@MockBean(JpaMetamodelMappingContext.class)
+@Import({CustomerChangeLog.class, CustomerChangeStream.class, SimpleMeterRegistry.class})
+class CustomerChangeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomerChangeLog changeLog;
+
+    @Test
+    public void getChanges() throws Exception {
+        long since = changeLog.getLastSeq();
+        changeLog.upserted(CustomerExample.customer);
+        changeLog.deleted(2L, 1);
+
+        // 이미 변경이 있으면 기다리지 않고 바로 응답한다.
+        MvcResult result = this.mockMvc.perform(get("/customer/changes").param("since", Long.toString(since)).param("limit", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()").value(1))
+                .andExpect(jsonPath("$.changes[0].type").value("upsert"))
+                .andExpect(jsonPath("$.changes[0].name").value(CustomerExample.customer.getName()))
+                .andExpect(jsonPath("$.next").value(since + 1))
+                .andDo(print());
+    }
+
+    @Test
+    public void getChangesWait() throws Exception {
+        long since = changeLog.getLastSeq();
+        MvcResult result = this.mockMvc.perform(get("/customer/changes").param("since", Long.toString(since)).param("wait", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // 기다리는 중에 변경이 기록되면 그 자리에서 응답한다.
+        changeLog.deleted(3L, 1);
+
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].type").value("delete"))
+                .andExpect(jsonPath("$.changes[0].id").value(3))
+                .andExpect(jsonPath("$.next").value(since + 1))
+                .andDo(print());
+    }
+
+    @Test
+    public void getChangesGone() throws Exception {
+        this.mockMvc.perform(get("/customer/changes").param("since", "1"))
+                .andExpect(status().isGone())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.detail").value(CustomerConstant.changesGoneMessage))
+                .andDo(print());
+
+        this.mockMvc.perform(get("/customer/changes").param("since", "0").param("wait", "61"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value(CustomerConstant.changesWaitMessage))
+                .andDo(print());
+    }
+
+    @Test
+    public void streamChanges() throws Exception {
+        long since = changeLog.getLastSeq();
+        changeLog.upserted(CustomerExample.customer);
+
+        MvcResult result = this.mockMvc.perform(get("/customer/changes")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Last-Event-ID", Long.toString(since)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // 구독 중에 들어온 변경도 이어서 받는다.
+        changeLog.deleted(4L, 1);
+
+        String body = "";
+        for (int i = 0; i < 100 && !body.contains("id:" + (since + 2)); i++) {
+            Thread.sleep(20);
+            body = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        }
+        assertTrue(body.contains("id:" + (since + 1) + "\nevent:change\ndata:{"), body);
+        assertTrue(body.contains("id:" + (since + 2) + "\nevent:change\ndata:{"), body);
+        assertTrue(body.contains("\"type\":\"delete\""), body);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.sample;
+
+import com.example.sample.customer.Customer;
+import com.example.sample.customer.CustomerChangeLog;
+import com.example.sample.customer.CustomerChangeStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 실제 톰캣에서 읽지 않는 SSE 구독자가 다른 구독자의 전송을 막지 않는지 확인한다.
+// 소켓 버퍼를 작게 잡아서 읽지 않는 구독자에게 쓰는 스레드가 곧바로 멈추게 한다.
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"sample.change-log.sse-threads=1", "sample.change-log.sse-write-timeout=500ms"}
+)
+class CustomerChangeStreamTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CustomerChangeLog changeLog;
+
+    @Autowired
+    private CustomerChangeStream changeStream;
+
+    @TestConfiguration
+    static class SmallSendBuffer {
+        @Bean
+        WebServerFactoryCustomizer<TomcatServletWebServerFactory> smallSendBuffer() {
+            return factory -> factory.addConnectorCustomizers(connector -> connector.setProperty("socket.txBufSize", "4096"));
+        }
+    }
+
+    @Test
+    void stalledSubscriber() throws Exception {
+        long since = changeLog.getLastSeq();
+        int subscribers = changeStream.getSubscriberCount();
+
+        try (Socket stalled = new Socket()) {
+            // 요청만 보내고 응답은 읽지 않는다.
+            stalled.setReceiveBufferSize(1024);
+            stalled.connect(new InetSocketAddress("localhost", port));
+            stalled.getOutputStream().write(("GET /customer/changes?since=" + since + " HTTP/1.1\r\n"
+                    + "Host: localhost\r\nAccept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            await(() -> changeStream.getSubscriberCount() == subscribers + 1);
+
+            HttpResponse<InputStream> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/customer/changes?since=" + since))
+                            .header("Accept", "text/event-stream")
+                            .build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                await(() -> changeStream.getSubscriberCount() == subscribers + 2);
+
+                String name = "가".repeat(2000);
+                for (long id = 1; id <= 500; id++) {
+                    changeLog.upserted(new Customer(id, name, "01012345678", 0L));
+                }
+                String last = "id:" + changeLog.getLastSeq();
+
+                // sender 스레드가 하나뿐이어도 읽는 구독자는 마지막 변경까지 받는다.
+                CompletableFuture<Boolean> received = CompletableFuture.supplyAsync(() ->
+                        reader.lines().anyMatch(last::equals));
+                assertTrue(received.get(10, TimeUnit.SECONDS));
+
+                // 읽지 않는 구독자는 sse-write-timeout 뒤에 구독에서 빠진다.
+                await(() -> changeStream.getSubscriberCount() == subscribers + 1);
+            }
+        }
+        // 끊긴 연결은 보낼 때에야 알게 된다. 닫힌 소켓에 처음 쓰는 것은 성공할 수 있으므로 빠질 때까지 보낸다.
+        await(() -> {
+            changeLog.deleted(1L, 1);
+            return changeStream.getSubscriberCount() == subscribers;
+        });
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -1,29 +1,47 @@
 package com.example.sample;
 
+import com.example.sample.common.exception.Common412Exception;
 import com.example.sample.customer.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.delete;
 import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.patch;
 import static org.springframework.restdocs.mockmvc.RestDocumentationRequestBuilders.put;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(CustomerController.class)
 @MockBean(JpaMetamodelMappingContext.class)
+@Import({CustomerRequestValidator.class, CustomerJsonCache.class})
 class CustomerControllerMockTest {
 
     @Autowired
@@ -32,6 +50,9 @@ class CustomerControllerMockTest {
     @MockBean
     private CustomerService customerService;
 
+    @SpyBean
+    private CustomerJsonCache jsonCache;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Test
@@ -47,6 +68,71 @@ class CustomerControllerMockTest {
                 .andDo(print());
     }
 
+    @Test
+    public void getPage() throws Exception {
+
+        Customer customer = CustomerExample.customer;
+        given(customerService.getCustomers(0L, 1)).willReturn(new CustomerPageDTO(List.of(customer.toDTO()), customer.getId()));
+
+        this.mockMvc.perform(get("/customer").param("limit", "1").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers[0].name").value(customer.getName()))
+                .andExpect(jsonPath("$.next").value(customer.getId()))
+                .andDo(print());
+    }
+
+    @Test
+    public void getPageValid() throws Exception {
+        this.mockMvc.perform(get("/customer").param("limit", "0").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value(CustomerConstant.limitMessage))
+                .andDo(print());
+    }
+
+    @Test
+    public void streamList() throws Exception {
+
+        willAnswer(invocation -> {
+            Consumer<CustomerDTO> consumer = invocation.getArgument(0);
+            consumer.accept(new CustomerDTO(1L, "박진희", "01040234504"));
+            consumer.accept(new CustomerDTO(2L, "유광열", "01012345678"));
+            return null;
+        }).given(customerService).streamCustomers(any());
+
+        var result = this.mockMvc.perform(get("/customer").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(content().string(
+                        "{\"id\":1,\"name\":\"박진희\",\"tel\":\"01040234504\"}\n" +
+                        "{\"id\":2,\"name\":\"유광열\",\"tel\":\"01012345678\"}"))
+                .andDo(print());
+    }
+
+    @Test
+    public void search() throws Exception {
+
+        Customer customer = CustomerExample.customer;
+        given(customerService.searchCustomers(customer.getTel(), null, 100)).willReturn(List.of(customer.toDTO()));
+
+        this.mockMvc.perform(get("/customer/search").param("tel", customer.getTel()).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].name").value(customer.getName()))
+                .andExpect(jsonPath("$.[0].tel").value(customer.getTel()))
+                .andDo(print());
+    }
+
+    @Test
+    public void searchValid() throws Exception {
+        this.mockMvc.perform(get("/customer/search").param("tel", " ").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value(CustomerConstant.searchMessage))
+                .andDo(print());
+    }
+
     @Test
     public void getNoCustomer() throws Exception {
         given(customerService.getCustomer(1000L)).willReturn(Optional.empty());
@@ -55,8 +141,11 @@ class CustomerControllerMockTest {
                         get("/customer/{id}", 1000L)
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON))
+                .andExpect(jsonPath("$.title").value("Bad Request"))
                 .andExpect(jsonPath("$.detail").value(CustomerConstant.notFoundMessage))
                 .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.instance").value("/customer/1000"))
                 .andDo(print());
     }
 
@@ -64,17 +153,83 @@ class CustomerControllerMockTest {
     public void getCustomer() throws Exception {
 
         Customer customer = CustomerExample.customer;
-        given(customerService.getCustomer(customer.getId())).willReturn(Optional.of(customer));
+        given(customerService.getCustomer(customer.getId())).willReturn(Optional.of(CustomerSnapshot.of(customer)));
 
         this.mockMvc.perform(
                         get("/customer/{id}", customer.getId())
                                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.ETAG, "\"" + customer.getVersion() + "\""))
                 .andExpect(jsonPath("$.name").value(customer.getName()))
                 .andExpect(jsonPath("$.tel").value(customer.getTel()))
                 .andDo(print());
     }
 
+    @Test
+    public void getCustomersByLimitAndIds() throws Exception {
+        // 페이지 조회와 여러 명 조회 매핑이 둘 다 맞는 요청은 500 이 아니라 400 이다.
+        this.mockMvc.perform(get("/customer").param("limit", "10").param("ids", "1,2"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value(CustomerConstant.limitAndIdsMessage))
+                .andDo(print());
+        verify(customerService, never()).getCustomers(anyLong(), anyInt());
+        verify(customerService, never()).getCustomers(any());
+    }
+
+    @Test
+    public void getCustomersByIds() throws Exception {
+        given(customerService.getCustomers(List.of(2L, 1L))).willReturn(List.of(
+                new CustomerDTO(2L, "유광열", "01012345678"),
+                new CustomerDTO(1L, "박진희", "01040234504")
+        ));
+
+        this.mockMvc.perform(get("/customer").param("ids", "2,1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].id").value(2))
+                .andExpect(jsonPath("$.[1].id").value(1))
+                .andDo(print());
+    }
+
+    @Test
+    public void lookupTooMany() throws Exception {
+        List<Long> ids = java.util.stream.LongStream.rangeClosed(1, CustomerConstant.maxPageSize + 1).boxed().toList();
+
+        this.mockMvc.perform(post("/customer/lookup")
+                        .content(objectMapper.writeValueAsBytes(ids))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value(CustomerConstant.idsMessage))
+                .andDo(print());
+        verify(customerService, never()).getCustomers(any());
+    }
+
+    @Test
+    public void getCustomerNotModified() throws Exception {
+
+        Customer customer = CustomerExample.customer;
+        given(customerService.getCustomer(customer.getId())).willReturn(Optional.of(CustomerSnapshot.of(customer)));
+
+        this.mockMvc.perform(
+                        get("/customer/{id}", customer.getId())
+                                .header(HttpHeaders.IF_NONE_MATCH, "\"" + customer.getVersion() + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + customer.getVersion() + "\""))
+                .andExpect(content().string(""))
+                .andDo(print());
+        // 304 면 본문 JSON 을 만들지 않는다.
+        verify(jsonCache, never()).toJson(any());
+    }
+
+    @Test
+    public void getListNotModified() throws Exception {
+        given(customerService.getCustomersETag()).willReturn("\"1-1-0\"");
+
+        this.mockMvc.perform(get("/customer").header(HttpHeaders.IF_NONE_MATCH, "\"1-1-0\""))
+                .andExpect(status().isNotModified())
+                .andDo(print());
+        verify(customerService, never()).getCustomers();
+    }
+
     @Test
     public void putValid() throws Exception {
 
@@ -94,7 +249,7 @@ class CustomerControllerMockTest {
 
         CustomerRequest.CustomerPutUpdateRequest request = new CustomerRequest.CustomerPutUpdateRequest("박진희", "01012345678");
 
-        given(customerService.getCustomer(1000L)).willReturn(Optional.empty());
+        given(customerService.putCustomer(eq(1000L), any(), any())).willReturn(Optional.empty());
         this.mockMvc.perform(
                         put("/customer/{id}", 1000L)
                                 .content(objectMapper.writeValueAsBytes(request))
@@ -105,12 +260,44 @@ class CustomerControllerMockTest {
                 .andDo(print());
     }
 
+    @Test
+    public void putPreconditionFailed() throws Exception {
+
+        CustomerRequest.CustomerPutUpdateRequest request = new CustomerRequest.CustomerPutUpdateRequest("박진희", "01012345678");
+        given(customerService.putCustomer(eq(1L), eq(0L), any())).willThrow(new Common412Exception(CustomerConstant.preconditionFailedMessage));
+
+        this.mockMvc.perform(
+                        put("/customer/{id}", 1L)
+                                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                                .content(objectMapper.writeValueAsBytes(request))
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.detail").value(CustomerConstant.preconditionFailedMessage))
+                .andExpect(jsonPath("$.status").value(412))
+                .andDo(print());
+    }
+
+    @Test
+    public void putWeakETag() throws Exception {
+        CustomerRequest.CustomerPutUpdateRequest request = new CustomerRequest.CustomerPutUpdateRequest("박진희", "01012345678");
+
+        // 압축된 응답의 약한 ETag 로는 수정할 수 없다.
+        this.mockMvc.perform(
+                        put("/customer/{id}", 1L)
+                                .header(HttpHeaders.IF_MATCH, "W/\"0\"")
+                                .content(objectMapper.writeValueAsBytes(request))
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.detail").value(CustomerConstant.preconditionFailedMessage))
+                .andDo(print());
+        verify(customerService, never()).putCustomer(any(), any(), any());
+    }
+
     @Test
     public void putSuccess() throws Exception {
         CustomerRequest.CustomerPutUpdateRequest request = new CustomerRequest.CustomerPutUpdateRequest("박진희", "01012345678");
-        Customer customer = CustomerExample.customer;
-        given(customerService.getCustomer(customer.getId())).willReturn(Optional.of(customer));
-        given(customerService.mergeCustomer(customer)).willReturn(customer);
+        Customer customer = new Customer(CustomerExample.customer.getId(), request.getName(), request.getTel());
+        given(customerService.putCustomer(eq(customer.getId()), any(), any())).willReturn(Optional.of(CustomerSnapshot.of(customer)));
 
         this.mockMvc.perform(
                         put("/customer/{id}", customer.getId())
@@ -138,7 +325,7 @@ class CustomerControllerMockTest {
     @Test
     public void patchNoCustomer() throws Exception {
         CustomerRequest.CustomerPatchUpdateRequest request = new CustomerRequest.CustomerPatchUpdateRequest("유광열");
-        given(customerService.getCustomer(1000L)).willReturn(Optional.empty());
+        given(customerService.patchCustomer(eq(1000L), any(), any())).willReturn(Optional.empty());
 
         this.mockMvc.perform(
                         patch("/customer/{id}", 1000L)
@@ -154,9 +341,8 @@ class CustomerControllerMockTest {
     @Test
     public void patchSuccess() throws Exception {
         CustomerRequest.CustomerPatchUpdateRequest request = new CustomerRequest.CustomerPatchUpdateRequest("유광열");
-        Customer customer = CustomerExample.customer;
-        given(customerService.getCustomer(customer.getId())).willReturn(Optional.of(customer));
-        given(customerService.mergeCustomer(customer)).willReturn(customer);
+        Customer customer = new Customer(CustomerExample.customer.getId(), request.getName(), CustomerExample.customer.getTel());
+        given(customerService.patchCustomer(eq(customer.getId()), any(), any())).willReturn(Optional.of(CustomerSnapshot.of(customer)));
 
         this.mockMvc.perform(
                         patch("/customer/{id}", customer.getId())
@@ -168,5 +354,24 @@ class CustomerControllerMockTest {
                 .andDo(print());
     }
 
+    @Test
+    public void deleteNoCustomer() throws Exception {
+        given(customerService.deleteCustomer(1000L, null)).willReturn(false);
+
+        this.mockMvc.perform(delete("/customer/{id}", 1000L))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value(CustomerConstant.notFoundMessage))
+                .andExpect(jsonPath("$.status").value(400))
+                .andDo(print());
+    }
+
+    @Test
+    public void deleteSuccess() throws Exception {
+        given(customerService.deleteCustomer(1L, null)).willReturn(true);
+
+        this.mockMvc.perform(delete("/customer/{id}", 1L))
+                .andExpect(status().isOk())
+                .andDo(print());
+    }
 
 }
@@ -0,0 +1,86 @@
+package com.example.sample;
+
+import com.example.sample.customer.CustomerTransferDTO;
+import com.example.sample.customer.CustomerTransferFormat;
+import com.example.sample.customer.CustomerTransferService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+// 부하 테스트용 고객 데이터. 같은 번호는 항상 같은 고객이 나오므로 실행마다 같은 데이터로 비교할 수 있다.
+//  name : 성 1자 + 이름 2자 (CustomerRequest 의 5자 제한 안)
+//  tel  : 019 + 번호 8자리 (숫자만 11자리). data.sql 과 POST 부하(018)와 겹치지 않는다.
+// 가져오기(CustomerTransferService)와 같은 bin 형식으로 쓰므로 배치 insert 와 시퀀스 이동을 그대로 쓴다.
+// 실행 중인 서버(--sample.transfer.admin.enabled=true)에 넣을 파일 만들기:
+//  ./mvnw -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.example.sample.CustomerDataGenerator -Dexec.args="1000000 target/customer.bin.gz"
+//  curl -X POST 'localhost:8080/admin/customer/import?format=bin' -H 'Content-Type: application/gzip' --data-binary @target/customer.bin.gz
+public class CustomerDataGenerator {
+
+    public static final long maxRows = 100_000_000L;
+
+    private static final String[] surnames = {"김", "이", "박", "최", "정", "강", "조", "윤", "장", "임", "한", "오", "서", "신", "권", "황", "안", "송", "류", "홍"};
+    private static final String[] syllables = {"민", "서", "지", "현", "수", "준", "영", "진", "하", "윤", "은", "우", "예", "도", "주", "희", "광", "열", "호", "연"};
+
+    public static String name(long number) {
+        // 번호를 섞어서 이웃한 id 가 같은 이름 앞부분을 갖지 않게 한다.
+        long mixed = mix(number);
+        return surnames[(int) (mixed % surnames.length)]
+                + syllables[(int) (mixed / surnames.length % syllables.length)]
+                + syllables[(int) (mixed / surnames.length / syllables.length % syllables.length)];
+    }
+
+    public static String tel(long number) {
+        return String.format("019%08d", number);
+    }
+
+    // firstId 부터 rows 명을 out 에 쓴다. out 은 닫는다.
+    public static void write(CustomerTransferFormat format, long firstId, long rows, OutputStream out) throws IOException {
+        if (rows > maxRows) {
+            throw new IllegalArgumentException("rows 는 " + maxRows + " 이하로 입력해주세요.");
+        }
+        try (CustomerTransferFormat.RowWriter writer = format.writer(out)) {
+            for (long number = 0; number < rows; number++) {
+                writer.write(new CustomerTransferFormat.Row(firstId + number, name(number), tel(number), 0));
+            }
+        }
+    }
+
+    // 파일을 거치지 않고 파이프로 쓰면서 바로 가져온다.
+    public static CustomerTransferDTO seed(CustomerTransferService transferService, long firstId, long rows) throws IOException {
+        PipedInputStream source = new PipedInputStream(64 * 1024);
+        PipedOutputStream sink = new PipedOutputStream(source);
+        CompletableFuture<Void> writing = CompletableFuture.runAsync(() -> {
+            try {
+                write(CustomerTransferFormat.bin, firstId, rows, sink);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        try (source) {
+            CustomerTransferDTO result = transferService.importCustomers(CustomerTransferFormat.bin, source);
+            writing.join();
+            return result;
+        }
+    }
+
+    // 인자: 고객 수, 파일 경로 (*.csv.gz / *.bin.gz), 시작 id (기본 1000)
+    public static void main(String[] args) throws IOException {
+        long rows = Long.parseLong(args[0]);
+        Path path = Path.of(args[1]);
+        long firstId = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+        write(CustomerTransferFormat.of(path.getFileName().toString()), firstId, rows, Files.newOutputStream(path));
+        System.out.printf("%d customers (id %d ~ %d) -> %s%n", rows, firstId, firstId + rows - 1, path);
+    }
+
+    private static long mix(long number) {
+        long z = number * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 31)) * 0xBF58476D1CE4E5B9L;
+        return (z ^ (z >>> 29)) & Long.MAX_VALUE;
+    }
+}
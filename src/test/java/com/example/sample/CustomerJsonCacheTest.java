@@ -0,0 +1,66 @@
+package com.example.sample;
+
+import com.example.sample.customer.CustomerDTO;
+import com.example.sample.customer.CustomerDTOSerializer;
+import com.example.sample.customer.CustomerJsonCache;
+import com.example.sample.customer.CustomerSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class CustomerJsonCacheTest {
+
+    private final ObjectMapper reflective = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .serializers(new CustomerDTOSerializer())
+            .build();
+
+    // 직접 쓰는 직렬화가 기본 BeanSerializer 와 같은 JSON 을 만든다.
+    @Test
+    void sameAsBeanSerializer() throws Exception {
+        var customers = List.of(
+                new CustomerDTO(1L, "박진희", "01040234504"),
+                new CustomerDTO(null, null, null),
+                new CustomerDTO(Long.MAX_VALUE, "\"따옴표\" \\ \n\t\u0001 😀", "")
+        );
+        for (CustomerDTO customer : customers) {
+            assertArrayEquals(reflective.writeValueAsBytes(customer), objectMapper.writeValueAsBytes(customer));
+        }
+        assertEquals(reflective.writeValueAsString(customers), objectMapper.writeValueAsString(customers));
+    }
+
+    @Test
+    void cacheByVersion() {
+        CustomerJsonCache jsonCache = new CustomerJsonCache(objectMapper, 100, Duration.ofMinutes(1));
+        CustomerSnapshot customer = new CustomerSnapshot(1L, "박진희", "01040234504", 0L);
+
+        byte[] json = jsonCache.toJson(customer);
+        assertSame(json, jsonCache.toJson(customer));
+
+        // 수정되어 version 이 올라가면 새로 만든다.
+        CustomerSnapshot updated = new CustomerSnapshot(1L, "유광열", "01040234504", 1L);
+        byte[] updatedJson = jsonCache.toJson(updated);
+        assertNotSame(json, updatedJson);
+        assertEquals("{\"id\":1,\"name\":\"유광열\",\"tel\":\"01040234504\"}", new String(updatedJson, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void sameVersionDifferentCustomer() {
+        CustomerJsonCache jsonCache = new CustomerJsonCache(objectMapper, 100, Duration.ofMinutes(1));
+        byte[] json = jsonCache.toJson(new CustomerSnapshot(1L, "박진희", "01040234504", 0L));
+
+        // 삭제 뒤 같은 id / version 으로 다시 가져온 다른 고객
+        byte[] imported = jsonCache.toJson(new CustomerSnapshot(1L, "유광열", "01012345678", 0L));
+        assertNotSame(json, imported);
+        assertEquals("{\"id\":1,\"name\":\"유광열\",\"tel\":\"01012345678\"}", new String(imported, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.sample;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 실제 톰캣을 띄워 GET/POST 혼합 부하를 주고 처리량을 출력한다.
+//  ./mvnw -Pload-test test
+//  ./mvnw -Pload-test test -Dspring.profiles.active=prod
+//  ./mvnw -Pload-test,virtual-threads test -Dspring.profiles.active=prod,virtual-threads   (JDK 21)
+// ReactiveCustomerLoadTest(-Preactive) 가 같은 부하를 WebFlux 버전에 준다. 동시성 비교는 -Dload.concurrency=1000 처럼 올려서 본다.
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class CustomerLoadTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private Environment environment;
+
+    // tel 은 유니크 인덱스라서 POST 마다 다른 번호를 쓴다.
+    private final AtomicLong telSequence = new AtomicLong();
+
+    @Value("${load.concurrency:200}")
+    private int concurrency;
+
+    @Value("${load.warmup:10s}")
+    private Duration warmup;
+
+    @Value("${load.duration:10s}")
+    private Duration duration;
+
+    // 전체 요청 중 POST 비율 (0 ~ 100)
+    @Value("${load.write-percent:20}")
+    private int writePercent;
+
+    @Test
+    void mixedGetPost() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(8))
+                .build();
+        // JIT 워밍업 구간은 집계하지 않는다.
+        run(client, warmup, new LongAdder(), new LongAdder(), new LongAdder());
+
+        LongAdder reads = new LongAdder();
+        LongAdder writes = new LongAdder();
+        LongAdder errors = new LongAdder();
+        run(client, duration, reads, writes, errors);
+
+        long total = reads.sum() + writes.sum();
+        System.out.printf(
+                "[load] %s profiles=%s concurrency=%d duration=%s reads=%d writes=%d errors=%d throughput=%.1f req/s serverThreads=%d%n",
+                getClass().getSimpleName(), Arrays.toString(environment.getActiveProfiles()), concurrency, duration,
+                reads.sum(), writes.sum(), errors.sum(), total / (double) duration.toSeconds(), serverThreads()
+        );
+        assertTrue(total > 0);
+    }
+
+    private void run(HttpClient client, Duration duration, LongAdder reads, LongAdder writes, LongAdder errors) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long deadline = System.nanoTime() + duration.toNanos();
+        for (int i = 0; i < concurrency; i++) {
+            workers.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    boolean write = ThreadLocalRandom.current().nextInt(100) < writePercent;
+                    try {
+                        HttpResponse<Void> response = client.send(write ? post() : get(), HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 500) {
+                            errors.increment();
+                        } else if (write) {
+                            writes.increment();
+                        } else {
+                            reads.increment();
+                        }
+                    } catch (Exception e) {
+                        errors.increment();
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        assertTrue(workers.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS));
+    }
+
+    // 요청을 처리한 서버 스레드 수
+    private long serverThreads() {
+        String prefix = serverThreadPrefix();
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith(prefix) && !thread.getName().endsWith("Acceptor") && !thread.getName().endsWith("Poller"))
+                .count();
+    }
+
+    // 톰캣 워커 스레드
+    protected String serverThreadPrefix() {
+        return "http-nio-";
+    }
+
+    private HttpRequest get() {
+        // data.sql 로 1번 고객이 항상 존재한다.
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/customer/1")).GET().build();
+    }
+
+    private HttpRequest post() {
+        String body = "{\"name\":\"박진희\",\"tel\":\"" + String.format("010%08d", telSequence.incrementAndGet()) + "\"}";
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/customer"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.sample;
+
+import com.example.sample.customer.Customer;
+import com.example.sample.customer.CustomerLoader;
+import com.example.sample.customer.CustomerRepository;
+import com.example.sample.customer.CustomerSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 로더가 다른 스레드/트랜잭션에서 읽으므로 테스트 트랜잭션 없이 실행한다.
+@DataJpaTest(properties = {"sample.customer-loader.enabled=true", "sample.customer-loader.window=200ms"})
+@Import({CustomerLoader.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CustomerLoaderTest {
+
+    @Autowired
+    private CustomerLoader customerLoader;
+
+    @Autowired
+    private CustomerRepository repository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void coalesce() {
+        List<Customer> customers = IntStream.range(0, 20)
+                .mapToObj(i -> repository.save(new Customer(null, "고객" + i, "0105555" + String.format("%04d", i))))
+                .toList();
+        long queries = meterRegistry.get("customer.loader.batch.size").summary().count();
+
+        // 동시에 들어온 20 건 (+ 없는 id, 중복 id) 이 window 안에서 한 번의 in 쿼리로 묶인다.
+        ExecutorService executor = Executors.newFixedThreadPool(24);
+        try {
+            List<CompletableFuture<Optional<CustomerSnapshot>>> futures = customers.stream()
+                    .map(customer -> CompletableFuture.supplyAsync(() -> customerLoader.load(customer.getId()), executor))
+                    .toList();
+            var missing = CompletableFuture.supplyAsync(() -> customerLoader.load(-1L), executor);
+            var duplicate = CompletableFuture.supplyAsync(() -> customerLoader.load(customers.get(0).getId()), executor);
+
+            for (int i = 0; i < customers.size(); i++) {
+                assertEquals(customers.get(i).getName(), futures.get(i).join().orElseThrow().name());
+            }
+            assertTrue(missing.join().isEmpty());
+            assertEquals(customers.get(0).getName(), duplicate.join().orElseThrow().name());
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(22, meterRegistry.get("customer.loader.requests").counter().count());
+        assertEquals(1, meterRegistry.get("customer.loader.batch.size").summary().count() - queries);
+    }
+}
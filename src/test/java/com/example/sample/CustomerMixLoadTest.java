@@ -0,0 +1,346 @@
+package com.example.sample;
+
+import com.example.sample.customer.CustomerTransferDTO;
+import com.example.sample.customer.CustomerTransferService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 고객 수백만 명을 넣은 실제 톰캣에 CustomerController 의 다섯 가지 요청을 정해진 비율로 섞어서 고정 도착률로 보낸다.
+//  ./mvnw -Pload-test test -Dtest=CustomerMixLoadTest
+//  ./mvnw -Pload-test test -Dtest=CustomerMixLoadTest -Dload.rows=5000000 -Dload.rate=3000 -Dload.mix=get=90,list=5,update=5
+//  ./mvnw -Pload-test test -Dtest=CustomerMixLoadTest -Dspring.profiles.active=prod
+// CustomerLoadTest 는 동시 사용자 수를 고정하고(closed) 처리량을 보지만, 여기서는 응답을 기다리지 않고
+// 예정된 시각마다 요청을 보내므로(open) 서버가 느려져도 요청이 줄지 않는다. 지연 시간은 실제로 보낸 시각이 아니라
+// 예정된 시각부터 재므로, 요청 생성이 밀린 시간도 지연으로 잡힌다. (coordinated omission 보정)
+// 결과는 target/load-test/customer-mix-<시각>.json 에 남긴다. 요청별 백분위와 함께 HdrHistogram 압축본(hdr)도 담아서
+// 여러 번 실행한 결과를 나중에 합치거나 다른 백분위를 다시 뽑을 수 있다.
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        // 요청마다 SQL 로그를 쓰면 로그가 병목이 된다.
+        "logging.level.org.hibernate.SQL=info",
+        "logging.level.org.hibernate.type.descriptor.sql=info",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.show_sql=false",
+        // 시드 데이터를 CustomerTransferService 로 넣는다.
+        "sample.transfer.admin.enabled=true"
+})
+public class CustomerMixLoadTest {
+
+    // GET /customer 전체 목록은 수백만 건을 한 번에 읽으므로 list 는 페이지 조회(after, limit=20)로 보낸다.
+    enum Operation {
+        get, list, create, update, delete
+    }
+
+    private static final long firstId = 1_000_000_000L;
+    private static final long highestTrackableMicros = TimeUnit.MINUTES.toMicros(1);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private CustomerTransferService transferService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${load.rows:1000000}")
+    private long rows;
+
+    // 초당 보낼 요청 수
+    @Value("${load.rate:1000}")
+    private int rate;
+
+    @Value("${load.warmup:10s}")
+    private Duration warmup;
+
+    @Value("${load.duration:10s}")
+    private Duration duration;
+
+    // 요청 종류=비율. 비율의 합은 아무 값이어도 된다.
+    @Value("${load.mix:get=60,list=10,create=10,update=15,delete=5}")
+    private String mix;
+
+    // 응답을 기다리는 요청이 이만큼 쌓이면 더 보내지 않고 dropped 로 센다. 서버가 멈췄을 때 클라이언트가 먼저 터지지 않게 한다.
+    @Value("${load.max-in-flight:2000}")
+    private int maxInFlight;
+
+    @Value("${load.output:target/load-test}")
+    private Path output;
+
+    // POST 는 018 로 시작하는 번호를 쓴다. (시드 데이터는 019)
+    private final AtomicLong telSequence = new AtomicLong();
+
+    @Test
+    void fixedRateMix() throws Exception {
+        long seedStart = System.nanoTime();
+        CustomerTransferDTO seeded = CustomerDataGenerator.seed(transferService, firstId, rows);
+        double seedSeconds = (System.nanoTime() - seedStart) / 1e9;
+        assertEquals(rows, seeded.getRows());
+        System.out.printf("[load] seeded %d customers in %.1fs%n", rows, seedSeconds);
+
+        Map<Operation, Integer> weights = parseMix(mix);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newFixedThreadPool(8))
+                .build();
+
+        // JIT 워밍업 구간은 집계하지 않는다.
+        run(client, weights, warmup, new Result());
+        Result result = new Result();
+        run(client, weights, duration, result);
+
+        Map<String, Object> report = report(weights, seedSeconds, result);
+        Files.createDirectories(output);
+        Path file = output.resolve("customer-mix-" + Instant.now().toEpochMilli() + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+
+        Histogram all = result.all();
+        System.out.printf(
+                "[load] %s profiles=%s rows=%d rate=%d mix=%s sent=%d dropped=%d errors=%d throughput=%.1f req/s p50=%dus p99=%dus p99.9=%dus max=%dus -> %s%n",
+                getClass().getSimpleName(), List.of(environment.getActiveProfiles()), rows, rate, weights, result.sent.get(),
+                result.dropped.sum(), result.errors(), all.getTotalCount() / (double) duration.toSeconds(),
+                all.getValueAtPercentile(50), all.getValueAtPercentile(99), all.getValueAtPercentile(99.9), all.getMaxValue(), file
+        );
+        assertTrue(all.getTotalCount() > 0);
+    }
+
+    // 예정된 시각(start + n / rate)마다 한 건씩 보내고 응답은 기다리지 않는다.
+    private void run(HttpClient client, Map<Operation, Integer> weights, Duration duration, Result result) throws InterruptedException {
+        Operation[] table = weightTable(weights);
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        AtomicInteger inFlight = new AtomicInteger();
+
+        for (long n = 0; ; n++) {
+            long intended = start + n * interval;
+            if (intended >= end) {
+                break;
+            }
+            long delay = intended - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            if (inFlight.get() >= maxInFlight) {
+                result.dropped.increment();
+                continue;
+            }
+            Operation operation = table[ThreadLocalRandom.current().nextInt(table.length)];
+            inFlight.incrementAndGet();
+            result.sent.incrementAndGet();
+            client.sendAsync(request(operation), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.decrementAndGet();
+                        result.record(operation, intended, error == null ? response.statusCode() : 0);
+                    });
+        }
+
+        // 남은 응답을 기다린다.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private HttpRequest request(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long number = random.nextLong(rows);
+        String customerUrl = "http://localhost:" + port + "/customer/" + (firstId + number);
+        long created = operation == Operation.create ? telSequence.incrementAndGet() : 0;
+        return switch (operation) {
+            case get -> HttpRequest.newBuilder(URI.create(customerUrl)).GET().build();
+            case list -> HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/customer?limit=20&after=" + (firstId + number)))
+                    .GET().build();
+            case create -> json(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/customer")),
+                    "POST", CustomerDataGenerator.name(created), String.format("018%08d", created));
+            // 휴대폰 번호는 그대로 두고 이름만 바꾼다. (tel 유니크 충돌 없이)
+            case update -> json(HttpRequest.newBuilder(URI.create(customerUrl)),
+                    "PUT", CustomerDataGenerator.name(random.nextLong(rows)), CustomerDataGenerator.tel(number));
+            case delete -> HttpRequest.newBuilder(URI.create(customerUrl)).DELETE().build();
+        };
+    }
+
+    private static HttpRequest json(HttpRequest.Builder builder, String method, String name, String tel) {
+        String body = "{\"name\":\"" + name + "\",\"tel\":\"" + tel + "\"}";
+        return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private Map<String, Object> report(Map<Operation, Integer> weights, double seedSeconds, Result result) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("test", getClass().getSimpleName());
+        report.put("timestamp", Instant.now().toString());
+        report.put("profiles", List.of(environment.getActiveProfiles()));
+        report.put("rows", rows);
+        report.put("totalRows", jdbcTemplate.queryForObject("select count(*) from customer_tb", Long.class));
+        report.put("seedSeconds", seedSeconds);
+        report.put("rate", rate);
+        report.put("mix", weights);
+        report.put("warmupSeconds", warmup.toSeconds());
+        report.put("durationSeconds", duration.toSeconds());
+        report.put("sent", result.sent.get());
+        report.put("dropped", result.dropped.sum());
+        Histogram all = result.all();
+        report.put("throughput", all.getTotalCount() / (double) duration.toSeconds());
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Operation operation : weights.keySet()) {
+            operations.put(operation.name(), result.stats.get(operation).report());
+        }
+        Stats total = new Stats();
+        result.stats.values().forEach(total::add);
+        operations.put("all", total.report());
+        report.put("operations", operations);
+        return report;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.trim().split("=");
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(pair[0].trim()), weight);
+            }
+        }
+        assertTrue(!weights.isEmpty(), "load.mix 에 비율이 0 보다 큰 요청이 없습니다: " + mix);
+        return weights;
+    }
+
+    private static Operation[] weightTable(Map<Operation, Integer> weights) {
+        Operation[] table = new Operation[weights.values().stream().mapToInt(Integer::intValue).sum()];
+        int index = 0;
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                table[index++] = entry.getKey();
+            }
+        }
+        return table;
+    }
+
+    private static class Result {
+
+        private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+        private final AtomicLong sent = new AtomicLong();
+        private final LongAdder dropped = new LongAdder();
+
+        Result() {
+            for (Operation operation : Operation.values()) {
+                stats.put(operation, new Stats());
+            }
+        }
+
+        // status 0 은 연결 실패나 타임아웃
+        void record(Operation operation, long intended, int status) {
+            stats.get(operation).record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended), status);
+        }
+
+        long errors() {
+            return stats.values().stream().mapToLong(Stats::errors).sum();
+        }
+
+        Histogram all() {
+            Stats total = new Stats();
+            stats.values().forEach(total::add);
+            return total.histogram();
+        }
+    }
+
+    // 요청 종류 하나의 지연 시간(us)과 상태 코드별 수
+    private static class Stats {
+
+        private final Recorder recorder = new Recorder(highestTrackableMicros, 3);
+        private final Histogram merged = new Histogram(highestTrackableMicros, 3);
+        // 0: 실패, 2: 2xx, 3: 3xx, 4: 4xx (없는 고객 포함), 5: 5xx
+        private final LongAdder[] statuses = {new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder()};
+
+        void record(long micros, int status) {
+            recorder.recordValue(Math.min(micros, highestTrackableMicros));
+            statuses[status / 100].increment();
+        }
+
+        long errors() {
+            return statuses[0].sum() + statuses[5].sum();
+        }
+
+        synchronized Histogram histogram() {
+            merged.add(recorder.getIntervalHistogram());
+            return merged.copy();
+        }
+
+        void add(Stats other) {
+            merged.add(other.histogram());
+            for (int i = 0; i < statuses.length; i++) {
+                statuses[i].add(other.statuses[i].sum());
+            }
+        }
+
+        Map<String, Object> report() {
+            Histogram histogram = histogram();
+            Map<String, Object> latency = new LinkedHashMap<>();
+            latency.put("mean", histogram.getMean());
+            for (double percentile : new double[]{50, 90, 99, 99.9, 99.99}) {
+                latency.put("p" + (percentile == (long) percentile ? Long.toString((long) percentile) : Double.toString(percentile)),
+                        histogram.getValueAtPercentile(percentile));
+            }
+            latency.put("max", histogram.getMaxValue());
+
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("failed", statuses[0].sum());
+            for (int i = 2; i < statuses.length; i++) {
+                status.put(i + "xx", statuses[i].sum());
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+            int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("count", histogram.getTotalCount());
+            report.put("errors", errors());
+            report.put("status", status);
+            report.put("latencyMicros", latency);
+            report.put("hdr", Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+            return report;
+        }
+    }
+}
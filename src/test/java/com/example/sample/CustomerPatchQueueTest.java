@@ -0,0 +1,101 @@
+package com.example.sample;
+
+import com.example.sample.customer.Customer;
+import com.example.sample.customer.CustomerCacheConfig;
+import com.example.sample.customer.CustomerChangeLog;
+import com.example.sample.customer.CustomerConstant;
+import com.example.sample.customer.CustomerPatchQueue;
+import com.example.sample.customer.CustomerRepository;
+import com.example.sample.customer.CustomerSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+// flush 가 다른 스레드/트랜잭션에서 커밋되므로 테스트 트랜잭션 없이 실행한다.
+@DataJpaTest(properties = {"sample.write-behind.enabled=true", "sample.write-behind.interval=1h"})
+@Import({CustomerPatchQueue.class, CustomerChangeLog.class, SimpleMeterRegistry.class, CustomerCacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CustomerPatchQueueTest {
+
+    @Autowired
+    private CustomerPatchQueue patchQueue;
+
+    @Autowired
+    private CustomerRepository repository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void coalesceAndFlush() {
+        Customer customer = repository.save(new Customer(null, "박진희", "01077770001"));
+        Long id = customer.getId();
+        double coalesced = meterRegistry.get("customer.patch.coalesced").counter().count();
+
+        patchQueue.enqueue(id, "유광열");
+        patchQueue.enqueue(id, "조현우");
+        patchQueue.enqueue(id, "김철수");
+
+        // flush 전에는 DB 는 그대로이고, overlay 로 마지막 이름이 보인다.
+        assertEquals("박진희", repository.findById(id).orElseThrow().getName());
+        assertEquals("김철수", patchQueue.overlay(CustomerSnapshot.of(customer)).name());
+        assertEquals(1.0, meterRegistry.get("customer.patch.queue.depth").gauge().value());
+        assertEquals(coalesced + 2, meterRegistry.get("customer.patch.coalesced").counter().count());
+
+        patchQueue.flush();
+
+        // 세 번의 PATCH 가 UPDATE 한 번, version 1 증가로 합쳐진다.
+        Customer flushed = repository.findById(id).orElseThrow();
+        assertEquals("김철수", flushed.getName());
+        assertEquals(customer.getVersion() + 1, flushed.getVersion());
+        assertFalse(patchQueue.isPending(id));
+        assertEquals(0.0, meterRegistry.get("customer.patch.queue.depth").gauge().value());
+    }
+
+    @Test
+    void discardAndDrainOnStop() {
+        Customer discarded = repository.save(new Customer(null, "박진희", "01077770002"));
+        Customer drained = repository.save(new Customer(null, "박진희", "01077770003"));
+
+        patchQueue.enqueue(discarded.getId(), "유광열");
+        patchQueue.discard(discarded.getId());
+        patchQueue.enqueue(drained.getId(), "조현우");
+
+        // 종료할 때 남은 변경을 모두 반영한다.
+        patchQueue.stop();
+        patchQueue.start();
+
+        assertEquals("박진희", repository.findById(discarded.getId()).orElseThrow().getName());
+        assertEquals("조현우", repository.findById(drained.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void flushKeepsNewerVersionInCache() {
+        Customer customer = repository.save(new Customer(null, "박진희", "01077770004"));
+        Cache cache = cacheManager.getCache(CustomerConstant.cacheName);
+        // flush 전에 DB 를 읽은 조회
+        CustomerSnapshot stale = CustomerSnapshot.of(repository.findById(customer.getId()).orElseThrow());
+
+        patchQueue.enqueue(customer.getId(), "유광열");
+        patchQueue.flush();
+
+        // 커밋된 값이 캐시에 들어가고, 그 뒤에 도착한 조회 결과는 낮은 version 이라 버려진다.
+        CustomerSnapshot flushed = new CustomerSnapshot(customer.getId(), "유광열", customer.getTel(), customer.getVersion() + 1);
+        assertEquals(flushed, cache.get(customer.getId(), CustomerSnapshot.class));
+        cache.put(customer.getId(), stale);
+        assertEquals(flushed, cache.get(customer.getId(), CustomerSnapshot.class));
+    }
+}
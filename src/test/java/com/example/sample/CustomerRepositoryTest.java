@@ -2,19 +2,58 @@ package com.example.sample;
 
 import com.example.sample.customer.Customer;
 import com.example.sample.customer.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@DataJpaTest
+// 인덱스 확인(explain)은 Hibernate 가 실제로 만든 SQL 을 StatementInspector 로 받아서 같은 파라미터로 실행한다.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.sample.CustomerRepositoryTest$SqlCapture")
 public class CustomerRepositoryTest {
 
+    public static class SqlCapture implements StatementInspector {
+
+        private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        static void clear() {
+            statements.clear();
+        }
+
+        // 마지막으로 실행된 customer_tb 조회
+        static String lastSelect() {
+            for (int i = statements.size() - 1; i >= 0; i--) {
+                if (statements.get(i).contains(" from customer_tb ")) {
+                    return statements.get(i);
+                }
+            }
+            throw new AssertionError("customer_tb 조회가 없습니다. " + statements);
+        }
+    }
+
     @Autowired
     private CustomerRepository repository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     void save () {
         var saveCustomer = saveCustomer();
@@ -45,6 +84,103 @@ public class CustomerRepositoryTest {
         assertTrue(repository.findById(saveCustomer.getId()).isEmpty());
     }
 
+    @Test
+    void findAllByIdIn() {
+        var first = repository.save(new Customer(null, "유광열", "01011112222"));
+        var second = repository.save(new Customer(null, "김하늘", "01033334444"));
+
+        var customers = repository.findAllByIdIn(List.of(first.getId(), second.getId(), -1L));
+        assertEquals(2, customers.size());
+    }
+
+    @Test
+    void findPageAfter() {
+        var first = repository.save(new Customer(null, "유광열", "01011112222"));
+        var second = repository.save(new Customer(null, "김하늘", "01033334444"));
+
+        var page = repository.findPageAfter(first.getId() - 1, PageRequest.ofSize(1));
+        assertEquals(1, page.size());
+        assertEquals(first.getId(), page.get(0).getId());
+
+        var next = repository.findPageAfter(page.get(0).getId(), PageRequest.ofSize(1));
+        assertEquals(second.getId(), next.get(0).getId());
+    }
+
+    @Test
+    void updateName() {
+        var saveCustomer = saveCustomer();
+        assertEquals(1, repository.updateName(saveCustomer.getId(), null, "유광열"));
+        var updated = repository.findById(saveCustomer.getId()).orElseThrow();
+        assertEquals("유광열", updated.getName());
+        assertEquals(0, repository.updateName(-1L, null, "유광열"));
+
+        // 이전 버전으로는 수정되지 않는다.
+        assertEquals(0, repository.updateName(saveCustomer.getId(), updated.getVersion() - 1, "박진희"));
+        assertEquals(1, repository.updateName(saveCustomer.getId(), updated.getVersion(), "박진희"));
+    }
+
+    @Test
+    void deleteOne() {
+        var saveCustomer = saveCustomer();
+        assertEquals(1, repository.deleteOne(saveCustomer.getId(), null));
+        assertTrue(repository.findById(saveCustomer.getId()).isEmpty());
+        assertEquals(0, repository.deleteOne(saveCustomer.getId(), null));
+    }
+
+    @Test
+    void findByTel() {
+        var saveCustomer = saveCustomer();
+        SqlCapture.clear();
+        var found = repository.findByTel(saveCustomer.getTel());
+        assertTrue(found.isPresent());
+        assertEquals(saveCustomer.getId(), found.get().getId());
+
+        String plan = explain(SqlCapture.lastSelect(), saveCustomer.getTel());
+        assertTrue(plan.contains("CUSTOMER_TEL_UK"), plan);
+    }
+
+    @Test
+    void findByNameStartingWith() {
+        repository.save(new Customer(null, "유광열", "01011112222"));
+        repository.save(new Customer(null, "유재석", "01033334444"));
+        repository.save(new Customer(null, "김하늘", "01055556666"));
+
+        SqlCapture.clear();
+        var found = repository.findByNameStartingWithOrderByNameAsc("유", PageRequest.ofSize(10));
+        assertEquals(2, found.size());
+        assertEquals("유광열", found.get(0).getName());
+
+        // like 패턴과 fetch first 10 rows
+        String plan = explain(SqlCapture.lastSelect(), "유%", 10);
+        assertTrue(plan.contains("CUSTOMER_NAME_IDX"), plan);
+    }
+
+    @Test
+    void versionSummary() {
+        var before = repository.versionSummary();
+        var saveCustomer = repository.save(new Customer(null, "유광열", "01011112222"));
+        var inserted = repository.versionSummary();
+        repository.updateName(saveCustomer.getId(), null, "김하늘");
+        var updated = repository.versionSummary();
+
+        assertNotEquals(before, inserted);
+        assertNotEquals(inserted, updated);
+    }
+
+    private String explain(String sql, Object... parameters) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
     private Customer saveCustomer() {
         return repository.save(CustomerExample.customer);
     }
@@ -0,0 +1,96 @@
+package com.example.sample;
+
+import com.example.sample.customer.CustomerRequest;
+import com.example.sample.customer.CustomerRequestValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// CustomerRequestValidator 가 애너테이션(Bean Validation)과 같은 결과를 내는지 비교한다.
+class CustomerRequestValidatorTest {
+
+    private static final List<String> names = Arrays.asList(null, "", " ", "\t\n", "박진희", "  박 ", "다섯글자임", "여섯글자이름", "      ");
+    private static final List<String> tels = Arrays.asList(null, "", " ", "01040234504", "010402345041", "010-4023", "０１０", "0", "abc", "01040234504 ");
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator beanValidator;
+    private final CustomerRequestValidator validator = new CustomerRequestValidator();
+
+    @BeforeAll
+    static void setup() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        beanValidator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void sameAsBeanValidation() {
+        for (String name : names) {
+            for (String tel : tels) {
+                assertSame(new CustomerRequest.CustomerInsertRequest(name, tel), name + "/" + tel);
+                assertSame(new CustomerRequest.CustomerPutUpdateRequest(name, tel), name + "/" + tel);
+            }
+            assertSame(new CustomerRequest.CustomerPatchUpdateRequest(name), name);
+        }
+    }
+
+    @Test
+    void firstError() {
+        for (String name : names) {
+            for (String tel : tels) {
+                var request = new CustomerRequest.CustomerInsertRequest(name, tel);
+                Set<String> messages = beanValidator.validate(request).stream()
+                        .map(ConstraintViolation::getMessage)
+                        .collect(Collectors.toSet());
+                String error = validator.firstError(request);
+                if (messages.isEmpty()) {
+                    assertNull(error);
+                } else {
+                    assertTrue(messages.contains(error), name + "/" + tel);
+                }
+            }
+        }
+    }
+
+    @Test
+    void generatedCustomers() {
+        // 부하 테스트 시드 데이터도 실제 요청과 같은 제약(Bean Validation 포함)을 지켜야 한다.
+        for (long number : new long[]{0, 1, 99, 12_345, 999_999, CustomerDataGenerator.maxRows - 1}) {
+            var request = new CustomerRequest.CustomerInsertRequest(CustomerDataGenerator.name(number), CustomerDataGenerator.tel(number));
+            assertNull(validator.firstError(request), "number=" + number);
+            assertSame(request, "number=" + number);
+        }
+    }
+
+    private void assertSame(Object request, String label) {
+        Set<String> expected = beanValidator.validate(request).stream()
+                .map(v -> v.getPropertyPath() + ":" + v.getMessage())
+                .collect(Collectors.toSet());
+
+        var errors = new BeanPropertyBindingResult(request, "request");
+        validator.validate(request, errors);
+        Set<String> actual = errors.getFieldErrors().stream()
+                .map(e -> e.getField() + ":" + e.getDefaultMessage())
+                .collect(Collectors.toSet());
+
+        assertEquals(expected, actual, label);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.sample;
+
+import com.example.sample.customer.CustomerChangeDTO;
+import com.example.sample.customer.CustomerChangeLog;
+import com.example.sample.customer.CustomerConstant;
+import com.example.sample.customer.CustomerRepository;
+import com.example.sample.customer.CustomerRequest;
+import com.example.sample.customer.CustomerRequestValidator;
+import com.example.sample.customer.CustomerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@DataJpaTest
+@Import({CustomerService.class, CustomerRequestValidator.class, CustomerChangeLog.class, SimpleMeterRegistry.class})
+public class CustomerServiceTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository repository;
+
+    @Autowired
+    private CustomerChangeLog changeLog;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void saveCustomers() {
+        long before = repository.count();
+        var requests = IntStream.range(0, 1200)
+                .mapToObj(i -> new CustomerRequest.CustomerInsertRequest("고객" + (i % 10), "010" + i))
+                .toList();
+
+        var result = customerService.saveCustomers(requests.iterator());
+
+        assertEquals(1200, result.getSaved());
+        assertEquals(0, result.getErrors().size());
+        assertEquals(before + 1200, repository.count());
+    }
+
+    @Test
+    void saveCustomersValid() {
+        var requests = List.of(
+                new CustomerRequest.CustomerInsertRequest("박진희", "01099990000"),
+                new CustomerRequest.CustomerInsertRequest("", "01099990001"),
+                new CustomerRequest.CustomerInsertRequest("유광열", "010-1234")
+        );
+
+        var result = customerService.saveCustomers(requests.iterator());
+
+        assertEquals(1, result.getSaved());
+        assertEquals(2, result.getErrors().size());
+        assertEquals(1, result.getErrors().get(0).getIndex());
+        assertEquals("이름을 입력해주세요.", result.getErrors().get(0).getMessage());
+        assertEquals(2, result.getErrors().get(1).getIndex());
+        assertEquals("휴대폰번호는 숫자로만 입력해주세요.", result.getErrors().get(1).getMessage());
+    }
+
+    @Test
+    void saveCustomersDuplicateTel() {
+        // data.sql 의 고객과 휴대폰 번호가 겹치는 항목만 실패하고, 같은 청크의 나머지는 저장된다.
+        long before = repository.count();
+        var requests = List.of(
+                new CustomerRequest.CustomerInsertRequest("유광열", "01088880000"),
+                new CustomerRequest.CustomerInsertRequest("박진희", "01040234504")
+        );
+
+        var result = customerService.saveCustomers(requests.iterator());
+
+        assertEquals(1, result.getSaved());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(1, result.getErrors().get(0).getIndex());
+        assertEquals(CustomerConstant.duplicateTelMessage, result.getErrors().get(0).getMessage());
+        assertEquals(before + 1, repository.count());
+    }
+
+    @Test
+    void saveCustomersDuplicateTelLargeChunk() {
+        // 한 청크(500 건) 안의 중복 두 건만 실패하고 나머지 498 건은 저장된다.
+        var requests = IntStream.range(0, CustomerConstant.batchChunkSize)
+                .mapToObj(i -> new CustomerRequest.CustomerInsertRequest("고객", i == 17 || i == 400 ? "01040234504" : "0107777" + i))
+                .toList();
+
+        var result = customerService.saveCustomers(requests.iterator());
+
+        assertEquals(CustomerConstant.batchChunkSize - 2, result.getSaved());
+        assertEquals(List.of(17, 400), result.getErrors().stream().map(error -> error.getIndex()).sorted().toList());
+        assertEquals(CustomerConstant.duplicateTelMessage, result.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void saveCustomersChanges() {
+        // 청크가 커밋된 뒤에만 변경 피드에 남는다. 저장에 실패한 청크는 남지 않는다.
+        long since = changeLog.getLastSeq();
+        var requests = List.of(
+                new CustomerRequest.CustomerInsertRequest("최주호", "01077770000"),
+                new CustomerRequest.CustomerInsertRequest("유광열", "01077770001")
+        );
+
+        customerService.saveCustomers(requests.iterator());
+        customerService.saveCustomers(List.of(new CustomerRequest.CustomerInsertRequest("박진희", "01040234504")).iterator());
+
+        var changes = changeLog.read(since, 10);
+        assertEquals(2, changes.getChanges().size());
+        assertEquals(since + 2, changes.getNext());
+        assertEquals(CustomerChangeDTO.Type.upsert, changes.getChanges().get(0).getType());
+        assertEquals("01077770001", changes.getChanges().get(1).getTel());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void deleteAfterUpsertInverted() {
+        var saved = customerService.saveCustomers(List.of(new CustomerRequest.CustomerInsertRequest("한서연", "01066660000")).iterator());
+        assertEquals(1, saved.getSaved());
+        Long id = repository.findByTel("01066660000").orElseThrow().getId();
+        long since = changeLog.getLastSeq();
+
+        // 수정이 커밋된 뒤 변경 피드에 기록되기 전에 삭제가 커밋되고 먼저 기록된다. (seq 순서: delete, upsert)
+        TransactionTemplate update = new TransactionTemplate(transactionManager);
+        TransactionTemplate delete = new TransactionTemplate(transactionManager);
+        delete.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        update.executeWithoutResult(status -> {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    delete.executeWithoutResult(inner -> customerService.deleteCustomer(id, null));
+                }
+            });
+            customerService.putCustomer(id, null, new CustomerRequest.CustomerPutUpdateRequest("한서윤", "01066660000"));
+        });
+
+        var changes = changeLog.read(since, 10).getChanges();
+        assertEquals(List.of(CustomerChangeDTO.Type.delete, CustomerChangeDTO.Type.upsert), changes.stream().map(CustomerChangeDTO::getType).toList());
+
+        // 구독자처럼 같은 id 는 version 이 큰 것만 반영하면 삭제가 남는다.
+        Map<Long, CustomerChangeDTO> latest = new HashMap<>();
+        for (CustomerChangeDTO change : changes) {
+            latest.merge(change.getId(), change, (a, b) -> a.getVersion() >= b.getVersion() ? a : b);
+        }
+        assertEquals(CustomerChangeDTO.Type.delete, latest.get(id).getType());
+        assertEquals(2L, latest.get(id).getVersion());
+        assertFalse(repository.existsById(id));
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.example.sample;
+
+import com.example.sample.common.exception.Common400Exception;
+import com.example.sample.customer.Customer;
+import com.example.sample.customer.CustomerAdminController;
+import com.example.sample.customer.CustomerChangeLog;
+import com.example.sample.customer.CustomerConstant;
+import com.example.sample.customer.CustomerRepository;
+import com.example.sample.customer.CustomerRequestValidator;
+import com.example.sample.customer.CustomerTransferFormat;
+import com.example.sample.customer.CustomerTransferRunner;
+import com.example.sample.customer.CustomerTransferService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "sample.transfer.admin.enabled=true")
+@Import({CustomerTransferService.class, CustomerChangeLog.class, CustomerRequestValidator.class, SimpleMeterRegistry.class})
+public class CustomerTransferServiceTest {
+
+    // 파일 형식은 따옴표, null, 빈 문자열도 그대로 옮긴다.
+    private static final List<CustomerTransferFormat.Row> rows = List.of(
+            new CustomerTransferFormat.Row(10L, "김,\"철수\"", "01000000010", 3L),
+            new CustomerTransferFormat.Row(11L, null, "01000000011", 0L),
+            new CustomerTransferFormat.Row(12L, "", "01000000012", 1L)
+    );
+
+    private static final List<CustomerTransferFormat.Row> customers = List.of(
+            new CustomerTransferFormat.Row(10L, "김,\"철\"", "01000000010", 3L),
+            new CustomerTransferFormat.Row(11L, "이영희", "01000000011", 0L),
+            new CustomerTransferFormat.Row(12L, "박민수", "01000000012", 1L)
+    );
+
+    @Autowired
+    private CustomerTransferService customerTransferService;
+
+    @Autowired
+    private CustomerRepository repository;
+
+    @Test
+    void roundTrip() throws IOException {
+        for (CustomerTransferFormat format : CustomerTransferFormat.values()) {
+            assertEquals(rows, read(format, write(format, rows)));
+        }
+    }
+
+    @Test
+    void importAndExport() throws IOException {
+        var imported = customerTransferService.importCustomers(CustomerTransferFormat.csv, input(write(CustomerTransferFormat.csv, customers)));
+        assertEquals(3, imported.getRows());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        var exported = customerTransferService.exportCustomers(CustomerTransferFormat.bin, out);
+        assertEquals(4, exported.getRows());
+        List<CustomerTransferFormat.Row> exportedRows = read(CustomerTransferFormat.bin, out.toByteArray());
+        assertEquals(customers, exportedRows.subList(1, 4));
+
+        // 가져온 id 뒤로 시퀀스가 옮겨져서 새 고객 id 와 겹치지 않는다.
+        Customer saved = repository.save(new Customer(null, "박진희", "01099999999"));
+        assertTrue(saved.getId() > 12);
+
+        // 같은 파일을 다시 가져오면 id / tel 중복으로 실패한다.
+        var duplicate = assertThrows(Common400Exception.class,
+                () -> customerTransferService.importCustomers(CustomerTransferFormat.csv, input(write(CustomerTransferFormat.csv, customers))));
+        assertEquals(CustomerConstant.importFailedMessage, duplicate.getMessage());
+        // 형식이 다른 파일
+        var parse = assertThrows(Common400Exception.class,
+                () -> customerTransferService.importCustomers(CustomerTransferFormat.bin, input(write(CustomerTransferFormat.csv, customers))));
+        assertEquals(CustomerConstant.importParseMessage, parse.getMessage());
+    }
+
+    @Test
+    void importInvalidRow() throws IOException {
+        // 두 번째 고객의 이름이 비어 있다.
+        var invalid = List.of(
+                new CustomerTransferFormat.Row(20L, "이영희", "01000000020", 0L),
+                new CustomerTransferFormat.Row(21L, "", "01000000021", 0L),
+                new CustomerTransferFormat.Row(22L, "박민수", "01000000022", 0L)
+        );
+        var e = assertThrows(Common400Exception.class,
+                () -> customerTransferService.importCustomers(CustomerTransferFormat.bin, input(write(CustomerTransferFormat.bin, invalid))));
+        assertEquals(CustomerConstant.importRowMessage.formatted(2, CustomerConstant.nameBlankMessage), e.getMessage());
+        // 같은 배치 안에서 멈췄으므로 아무것도 들어가지 않는다.
+        assertTrue(repository.findById(20L).isEmpty());
+    }
+
+    @Test
+    void importOversizedString() throws IOException {
+        // 헤더, 행 표시(1), id 차이, version 다음 이름 길이로 2GB 와 음수가 되는 값을 준다.
+        for (long length : new long[]{Integer.MAX_VALUE, 1L << 40, -1L}) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (var gzip = new GZIPOutputStream(out)) {
+                gzip.write("CUSTBIN1".getBytes(StandardCharsets.US_ASCII));
+                gzip.write(new byte[]{1, 2, 0});
+                for (long value = length; ; value >>>= 7) {
+                    if ((value & ~0x7FL) == 0) {
+                        gzip.write((int) value);
+                        break;
+                    }
+                    gzip.write((int) ((value & 0x7F) | 0x80));
+                }
+            }
+            var e = assertThrows(Common400Exception.class,
+                    () -> customerTransferService.importCustomers(CustomerTransferFormat.bin, input(out.toByteArray())));
+            assertEquals(CustomerConstant.importParseMessage, e.getMessage());
+        }
+
+        // csv 도 한 칸이 너무 길면 끝까지 모으지 않고 멈춘다.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(("id,name,tel,version\n30," + "가".repeat(2000) + ",01000000030,0\n").getBytes(StandardCharsets.UTF_8));
+        }
+        var e = assertThrows(Common400Exception.class,
+                () -> customerTransferService.importCustomers(CustomerTransferFormat.csv, input(out.toByteArray())));
+        assertEquals(CustomerConstant.importParseMessage, e.getMessage());
+    }
+
+    @Test
+    void disabledByDefault() {
+        new ApplicationContextRunner()
+                .withUserConfiguration(CustomerTransferService.class, CustomerAdminController.class, CustomerTransferRunner.class)
+                .run(context -> {
+                    assertTrue(context.getBeansOfType(CustomerTransferService.class).isEmpty());
+                    assertTrue(context.getBeansOfType(CustomerAdminController.class).isEmpty());
+                    assertTrue(context.getBeansOfType(CustomerTransferRunner.class).isEmpty());
+                });
+    }
+
+    private static byte[] write(CustomerTransferFormat format, List<CustomerTransferFormat.Row> rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (var writer = format.writer(out)) {
+            for (var row : rows) {
+                writer.write(row);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static List<CustomerTransferFormat.Row> read(CustomerTransferFormat format, byte[] bytes) throws IOException {
+        List<CustomerTransferFormat.Row> result = new ArrayList<>();
+        try (var reader = format.reader(new ByteArrayInputStream(bytes))) {
+            for (var row = reader.read(); row != null; row = reader.read()) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    private static InputStream input(byte[] bytes) {
+        return new ByteArrayInputStream(bytes);
+    }
+}
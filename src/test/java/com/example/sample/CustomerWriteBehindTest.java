@@ -0,0 +1,161 @@
+package com.example.sample;
+
+import com.example.sample.customer.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// write-behind(CustomerPatchQueue)를 켠 채로 컨트롤러, 캐시, DB 를 함께 확인한다.
+// 예약된 flush 가 끼어들지 않도록 interval 을 길게 두고 테스트에서 직접 flush 한다.
+@SpringBootTest(properties = {"sample.write-behind.enabled=true", "sample.write-behind.interval=1h"})
+@AutoConfigureMockMvc
+class CustomerWriteBehindTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerPatchQueue patchQueue;
+
+    @Autowired
+    private CustomerRepository repository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void patchWithoutIfMatch() throws Exception {
+        CustomerSnapshot customer = customerService.mergeCustomer(new Customer(null, "박진희", "01055550001"));
+
+        // 큐에 넣고 바로 200 으로 새 이름을 돌려준다. version 이 아직 오르지 않았으므로 ETag 는 없다.
+        this.mockMvc.perform(patch("/customer/{id}", customer.id())
+                        .content(objectMapper.writeValueAsBytes(new CustomerRequest.CustomerPatchUpdateRequest("유광열")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.name").value("유광열"))
+                .andDo(print());
+        assertEquals("박진희", repository.findById(customer.id()).orElseThrow().getName());
+
+        // flush 전 조회도 새 이름(overlay)을 ETag 없이 돌려준다.
+        this.mockMvc.perform(get("/customer/{id}", customer.id()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.name").value("유광열"))
+                .andDo(print());
+
+        patchQueue.flush();
+
+        this.mockMvc.perform(get("/customer/{id}", customer.id()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + (customer.version() + 1) + "\""))
+                .andExpect(jsonPath("$.name").value("유광열"))
+                .andDo(print());
+    }
+
+    @Test
+    void putDiscardsPendingPatch() throws Exception {
+        CustomerSnapshot customer = customerService.mergeCustomer(new Customer(null, "박진희", "01055550002"));
+        patchQueue.enqueue(customer.id(), "유광열");
+
+        this.mockMvc.perform(put("/customer/{id}", customer.id())
+                        .content(objectMapper.writeValueAsBytes(new CustomerRequest.CustomerPutUpdateRequest("조현우", "01055550003")))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("조현우"))
+                .andDo(print());
+
+        // PUT 이 먼저 들어온 PATCH 를 버렸으므로 flush 가 PUT 의 이름을 덮어쓰지 않는다.
+        patchQueue.flush();
+        assertEquals("조현우", repository.findById(customer.id()).orElseThrow().getName());
+        this.mockMvc.perform(get("/customer/{id}", customer.id()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + (customer.version() + 1) + "\""))
+                .andExpect(jsonPath("$.name").value("조현우"))
+                .andDo(print());
+    }
+
+    @Test
+    void deleteDiscardsPendingPatch() throws Exception {
+        CustomerSnapshot customer = customerService.mergeCustomer(new Customer(null, "박진희", "01055550004"));
+        patchQueue.enqueue(customer.id(), "유광열");
+
+        this.mockMvc.perform(delete("/customer/{id}", customer.id()))
+                .andExpect(status().isOk());
+
+        patchQueue.flush();
+        assertTrue(repository.findById(customer.id()).isEmpty());
+        this.mockMvc.perform(get("/customer/{id}", customer.id()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value(CustomerConstant.notFoundMessage))
+                .andDo(print());
+    }
+
+    @Test
+    void getAcrossFlush() throws Exception {
+        CustomerSnapshot customer = customerService.mergeCustomer(new Customer(null, "박진희", "01055550005"));
+        Cache cache = cacheManager.getCache(CustomerConstant.cacheName);
+
+        // 캐시를 비운 뒤 DB 에서 읽는 조회를 flush 와 겹친다.
+        // flush 전에 읽은 조회가 flush 뒤에 캐시에 넣더라도 캐시에는 커밋된 version 이 남아야 한다.
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 100; i++) {
+                patchQueue.enqueue(customer.id(), "고객" + i);
+                cache.evict(customer.id());
+                CountDownLatch started = new CountDownLatch(4);
+                List<Future<?>> readers = new ArrayList<>();
+                for (int j = 0; j < 4; j++) {
+                    readers.add(executor.submit(() -> {
+                        started.countDown();
+                        for (int k = 0; k < 5; k++) {
+                            customerService.getCustomer(customer.id());
+                        }
+                    }));
+                }
+                started.await();
+                patchQueue.flush();
+                for (Future<?> reader : readers) {
+                    reader.get();
+                }
+
+                CustomerSnapshot stored = CustomerSnapshot.of(repository.findById(customer.id()).orElseThrow());
+                assertEquals(new CustomerSnapshot(customer.id(), "고객" + i, customer.tel(), customer.version() + i + 1), stored);
+                assertEquals(stored, customerService.getCustomer(customer.id()).orElseThrow());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.sample;
+
+import com.example.sample.common.jdbc.DataSourceTuningConfig;
+import com.example.sample.common.jdbc.LimitedDataSource;
+import com.example.sample.common.jdbc.LimitedDataSourceConfig;
+import com.example.sample.common.jdbc.ReplicaRoutingConfig;
+import com.example.sample.common.jdbc.ReplicaRoutingDataSource;
+import com.example.sample.common.jdbc.SqlLoggingDataSource;
+import com.example.sample.common.jdbc.SqlLoggingDataSourceConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+// 풀 크기 조정은 다른 DataSource 래퍼(라우팅, 커넥션 제한, SQL 로그)보다 먼저 적용되고,
+// 커넥션 제한은 조정된 풀 크기로 세마포어를 만든다. 설정 클래스의 등록 순서와 관계없다.
+class DataSourceTuningConfigTest {
+
+    // CPU 수 * 2 + spindles(1), db-max-connections(100) / instances(1) 중 작은 값
+    private static final int tunedPoolSize = Math.max(2, Math.min(Runtime.getRuntime().availableProcessors() * 2 + 1, 100));
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+            .withUserConfiguration(SqlLoggingDataSourceConfig.class, LimitedDataSourceConfig.class, ReplicaRoutingConfig.class, DataSourceTuningConfig.class)
+            .withPropertyValues(
+                    "spring.datasource.url=jdbc:h2:mem:tuning",
+                    "sample.datasource-tuning.enabled=true",
+                    "sample.jdbc-limiter.enabled=true",
+                    "sample.sql-log.enabled=true"
+            );
+
+    @Test
+    void tunedBeforeLimit() {
+        contextRunner.run(context -> {
+            DataSource dataSource = context.getBean(DataSource.class);
+            assertInstanceOf(SqlLoggingDataSource.class, dataSource);
+            HikariDataSource hikari = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+            assertEquals(tunedPoolSize, hikari.getMaximumPoolSize());
+            assertEquals(tunedPoolSize, hikari.getMinimumIdle());
+            assertEquals(tunedPoolSize, DataSourceUnwrapper.unwrap(dataSource, LimitedDataSource.class).getMaxPermits());
+        });
+    }
+
+    @Test
+    void tunedWithReplica() {
+        contextRunner.withPropertyValues(
+                "sample.replica.enabled=true",
+                "sample.replica.urls=jdbc:h2:mem:tuning-replica"
+        ).run(context -> {
+            DataSource dataSource = context.getBean(DataSource.class);
+            ReplicaRoutingDataSource routing = DataSourceUnwrapper.unwrap(dataSource, ReplicaRoutingDataSource.class);
+            assertNotNull(routing);
+            HikariDataSource primary = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+            assertEquals(tunedPoolSize, primary.getMaximumPoolSize());
+            assertEquals(tunedPoolSize, DataSourceUnwrapper.unwrap(dataSource, LimitedDataSource.class).getMaxPermits());
+        });
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.sample;
+
+import com.example.sample.common.compression.CompressionProperties;
+import com.example.sample.common.compression.GzipResponseFilter;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GzipResponseFilterTest {
+
+    private static final String customer = "{\"id\":1,\"name\":\"박진희\",\"tel\":\"01040234504\"}";
+
+    private final GzipResponseFilter filter = new GzipResponseFilter(new CompressionProperties(
+            true, DataSize.ofKilobytes(2), List.of("application/json", "application/x-ndjson"), 1, DataSize.ofKilobytes(8)));
+
+    @Test
+    void largeList() throws Exception {
+        // 64 바이트씩 나눠 쓰고 중간에 flush 해도 결과는 하나의 gzip 본문이다.
+        String body = "[" + String.join(",", Collections.nCopies(1000, customer)) + "]";
+        MockHttpServletResponse response = perform("gzip, deflate", "application/json", body, 100);
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        assertEquals("W/\"7\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(body, gunzip(response.getContentAsByteArray()));
+        assertTrue(response.getContentAsByteArray().length < body.length() / 5);
+        assertEquals(body.getBytes(StandardCharsets.UTF_8).length, filter.getUncompressedBytes());
+        assertEquals(response.getContentAsByteArray().length, filter.getCompressedBytes());
+    }
+
+    @Test
+    void smallOrNotAccepted() throws Exception {
+        // min-size 보다 작으면 압축하지 않고 ETag 도 그대로 둔다.
+        MockHttpServletResponse small = perform("gzip", "application/json", "[" + customer + "]", 10);
+        assertNull(small.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("\"7\"", small.getHeader(HttpHeaders.ETAG));
+        assertEquals("[" + customer + "]", small.getContentAsString(StandardCharsets.UTF_8));
+
+        String body = String.join("\n", Collections.nCopies(1000, customer));
+        MockHttpServletResponse notAccepted = perform("gzip;q=0, identity", "application/x-ndjson", body, 100);
+        assertNull(notAccepted.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, notAccepted.getHeader(HttpHeaders.VARY));
+        assertEquals(body, notAccepted.getContentAsString(StandardCharsets.UTF_8));
+
+        MockHttpServletResponse otherType = perform("gzip", "text/plain", body, 100);
+        assertNull(otherType.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertNull(otherType.getHeader(HttpHeaders.VARY));
+
+        assertEquals(0, filter.getGzipResponses());
+        assertEquals(3, filter.getIdentityResponses());
+    }
+
+    private MockHttpServletResponse perform(String acceptEncoding, String contentType, String body, int flushEvery) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/customer");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            var servletResponse = (HttpServletResponse) res;
+            servletResponse.setContentType(contentType);
+            servletResponse.setHeader(HttpHeaders.ETAG, "\"7\"");
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            var outputStream = res.getOutputStream();
+            for (int offset = 0, chunk = 0; offset < bytes.length; offset += 64, chunk++) {
+                outputStream.write(bytes, offset, Math.min(64, bytes.length - offset));
+                if (chunk % flushEvery == 0) {
+                    outputStream.flush();
+                }
+            }
+            outputStream.flush();
+        });
+        return response;
+    }
+
+    private static String gunzip(byte[] body) throws Exception {
+        return new String(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.sample;
+
+import com.example.sample.common.openapi.OpenApiCacheFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OpenApiCacheFilterTest {
+
+    private static final String doc = "{\"openapi\":\"3.0.1\"}";
+
+    private final OpenApiCacheFilter filter = new OpenApiCacheFilter("/api-docs", 604800);
+    private final AtomicInteger generated = new AtomicInteger();
+
+    @Test
+    void apiDocs() throws Exception {
+        MockHttpServletResponse first = perform(request(null, null));
+        assertEquals(200, first.getStatus());
+        assertEquals(doc, first.getContentAsString());
+
+        MockHttpServletResponse gzip = perform(request("gzip, deflate", null));
+        assertEquals("gzip", gzip.getHeader(HttpHeaders.CONTENT_ENCODING));
+        String unzipped = new String(new GZIPInputStream(new ByteArrayInputStream(gzip.getContentAsByteArray())).readAllBytes(), StandardCharsets.UTF_8);
+        assertEquals(doc, unzipped);
+
+        MockHttpServletResponse notModified = perform(request("gzip", gzip.getHeader(HttpHeaders.ETAG)));
+        assertEquals(304, notModified.getStatus());
+
+        // springdoc 은 처음 한 번만 호출된다.
+        assertEquals(1, generated.get());
+    }
+
+    @Test
+    void swaggerUiAssets() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/swagger-ui/swagger-ui-bundle.js");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals("public, max-age=604800", response.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    private MockHttpServletRequest request(String acceptEncoding, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api-docs");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request;
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            generated.incrementAndGet();
+            res.setContentType("application/json");
+            res.getOutputStream().write(doc.getBytes(StandardCharsets.UTF_8));
+        });
+        return response;
+    }
+}
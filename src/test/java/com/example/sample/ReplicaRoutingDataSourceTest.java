@@ -0,0 +1,126 @@
+package com.example.sample;
+
+import com.example.sample.common.jdbc.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// primary 와 replica 두 개를 각각 다른 H2 인스턴스로 띄우고, 어느 DB 에서 읽었는지 whoami 테이블로 확인한다.
+public class ReplicaRoutingDataSourceTest {
+
+    private HikariDataSource primary;
+    private HikariDataSource replica1;
+    private HikariDataSource replica2;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate write;
+    private TransactionTemplate read;
+
+    @BeforeEach
+    void setup() {
+        primary = h2("primary");
+        replica1 = h2("replica-1");
+        replica2 = h2("replica-2");
+        routing = new ReplicaRoutingDataSource(primary, List.of(
+                new ReplicaRoutingDataSource.Replica("replica-1", replica1),
+                new ReplicaRoutingDataSource.Replica("replica-2", replica2)
+        ), ReplicaRoutingDataSource.Strategy.ROUND_ROBIN, Duration.ofSeconds(1), "select ms from lag");
+
+        var dataSource = new LazyConnectionDataSourceProxy(routing);
+        var transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        write = new TransactionTemplate(transactionManager);
+        read = new TransactionTemplate(transactionManager);
+        read.setReadOnly(true);
+    }
+
+    @AfterEach
+    void close() {
+        routing.close();
+        primary.close();
+    }
+
+    @Test
+    void routeByReadOnly() {
+        assertEquals("primary", write.execute(status -> whoami()));
+        assertEquals("primary", whoami());
+
+        // readOnly 트랜잭션은 replica 를 돌아가며 쓴다.
+        long primaryConnections = routing.getPrimaryConnections();
+        assertEquals("replica-1", read.execute(status -> whoami()));
+        assertEquals("replica-2", read.execute(status -> whoami()));
+        assertEquals("replica-1", read.execute(status -> whoami()));
+        assertEquals(primaryConnections, routing.getPrimaryConnections());
+    }
+
+    @Test
+    void fallbackOnLag() {
+        // replica-1 이 허용 지연(1초)보다 늦으면 빠진다.
+        new JdbcTemplate(replica1).update("update lag set ms = 5000");
+        routing.checkReplicas();
+        assertEquals("replica-2", read.execute(status -> whoami()));
+        assertEquals("replica-2", read.execute(status -> whoami()));
+
+        // 모두 늦으면 primary 에서 읽는다.
+        new JdbcTemplate(replica2).update("update lag set ms = 5000");
+        routing.checkReplicas();
+        assertEquals("primary", read.execute(status -> whoami()));
+        assertEquals(1, routing.getFallbacks());
+
+        // 따라잡으면 다시 쓴다.
+        new JdbcTemplate(replica1).update("update lag set ms = 0");
+        routing.checkReplicas();
+        assertEquals("replica-1", read.execute(status -> whoami()));
+    }
+
+    @Test
+    void connectionWithCredentials() throws SQLException {
+        // 계정을 직접 주면 readOnly 트랜잭션이어도 primary 에 그대로 넘긴다. (Hikari 풀은 계정 지정을 지원하지 않으므로 H2 DataSource 를 쓴다)
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL(primary.getJdbcUrl());
+        var credentials = new ReplicaRoutingDataSource(h2, routing.getReplicas(),
+                ReplicaRoutingDataSource.Strategy.ROUND_ROBIN, Duration.ofSeconds(1), "select ms from lag");
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try (Connection connection = credentials.getConnection("", "")) {
+            assertEquals("primary", new JdbcTemplate(new SingleConnectionDataSource(connection, true))
+                    .queryForObject("select name from whoami", String.class));
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+        assertEquals(1, credentials.getPrimaryConnections());
+        assertEquals(0, credentials.getFallbacks());
+    }
+
+    private String whoami() {
+        return jdbcTemplate.queryForObject("select name from whoami", String.class);
+    }
+
+    private static HikariDataSource h2(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(2);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table whoami (name varchar(20))");
+        jdbcTemplate.update("insert into whoami values (?)", name);
+        jdbcTemplate.execute("create table lag (ms bigint)");
+        jdbcTemplate.update("insert into lag values (0)");
+        return dataSource;
+    }
+}
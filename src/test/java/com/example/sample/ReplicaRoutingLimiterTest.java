@@ -0,0 +1,74 @@
+package com.example.sample;
+
+import com.example.sample.common.jdbc.LimitedDataSource;
+import com.example.sample.common.jdbc.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// replica 라우팅과 커넥션 제한을 함께 켜면 primary 와 replica 풀이 각자의 크기만큼 permit 을 갖는다.
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.datasource.hikari.maximum-pool-size=2",
+                "sample.jdbc-limiter.enabled=true",
+                "sample.jdbc-limiter.acquire-timeout=100ms",
+                "sample.replica.enabled=true",
+                "sample.replica.urls=jdbc:h2:mem:replica-limiter;DB_CLOSE_DELAY=-1",
+                "sample.replica.pool-size=3",
+        }
+)
+class ReplicaRoutingLimiterTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void limitPerTarget() throws Exception {
+        ReplicaRoutingDataSource routing = DataSourceUnwrapper.unwrap(dataSource, ReplicaRoutingDataSource.class);
+        LimitedDataSource primary = DataSourceUnwrapper.unwrap(dataSource, LimitedDataSource.class);
+        LimitedDataSource replica = (LimitedDataSource) routing.getReplicas().get(0).getTarget();
+        assertEquals(2, primary.getMaxPermits());
+        assertEquals(3, replica.getMaxPermits());
+
+        List<Connection> connections = new ArrayList<>();
+        try {
+            // primary 의 permit 을 모두 써도 읽기 전용 트랜잭션은 replica 에서 커넥션을 받는다.
+            connections.add(routing.getConnection());
+            connections.add(routing.getConnection());
+            assertEquals(0, primary.getAvailablePermits());
+            assertThrows(SQLTransientConnectionException.class, routing::getConnection);
+
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            try {
+                connections.add(routing.getConnection());
+            } finally {
+                TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            }
+            assertEquals(2, replica.getAvailablePermits());
+            assertEquals(0, routing.getFallbacks());
+            assertEquals(2.0, meterRegistry.get("jdbc.limiter.available").tag("pool", "replica-1").gauge().value());
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+        assertEquals(2, primary.getAvailablePermits());
+        assertEquals(3, replica.getAvailablePermits());
+    }
+}
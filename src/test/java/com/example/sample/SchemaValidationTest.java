@@ -0,0 +1,26 @@
+package com.example.sample;
+
+import com.example.sample.customer.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// fast-start 프로필의 db/schema.sql 이 엔티티 매핑과 맞는지 Hibernate validate 로 확인한다.
+@DataJpaTest(properties = {
+        "spring.sql.init.schema-locations=classpath:db/schema.sql",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.generate-ddl=false",
+        "spring.jpa.defer-datasource-initialization=false"
+})
+class SchemaValidationTest {
+
+    @Autowired
+    private CustomerRepository repository;
+
+    @Test
+    void validate() {
+        assertEquals(1, repository.count());
+    }
+}
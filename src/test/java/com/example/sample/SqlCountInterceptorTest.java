@@ -0,0 +1,95 @@
+package com.example.sample;
+
+import com.example.sample.common.metrics.SqlStatementCounter;
+import com.example.sample.customer.CustomerRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 요청별 SQL 수(http.server.requests.sql), 핸들러 / 서비스 타이머 히스토그램, 경고 기준치를 실제 MVC 와 Hibernate 로 확인한다.
+// 한 건 조회만으로 경고가 나도록 기준치를 0 으로 둔다. 테스트에서도 Prometheus 레지스트리를 쓰도록 지표 내보내기를 켠다.
+@SpringBootTest(properties = "sample.metrics.sql-warn-threshold=0")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ExtendWith(OutputCaptureExtension.class)
+class SqlCountInterceptorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CustomerRepository repository;
+
+    @Test
+    void sqlCount(CapturedOutput output) throws Exception {
+        long count = sql("CustomerController.getCustomerPage").count();
+        double total = sql("CustomerController.getCustomerPage").totalAmount();
+
+        this.mockMvc.perform(get("/customer").param("limit", "2"))
+                .andExpect(status().isOk());
+
+        // 페이지 조회는 keyset 쿼리 한 번이다.
+        assertEquals(count + 1, sql("CustomerController.getCustomerPage").count());
+        assertEquals(total + 1, sql("CustomerController.getCustomerPage").totalAmount());
+        assertTrue(output.getOut().contains("CustomerController.getCustomerPage executed 1 SQL statements (threshold 0) : GET /customer"));
+        assertTrue(meterRegistry.get("http.server.requests").tag("uri", "/customer").tag("method", "GET").timer().count() > 0);
+        assertTrue(meterRegistry.get("customer.service").tag("method", "getCustomers").timer().count() > 0);
+
+        // 핸들러, 서비스 메서드, SQL 수가 모두 백분위 히스토그램(_bucket)으로 스크랩된다.
+        String scrape = this.mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(bucket(scrape, "http_server_requests_seconds_bucket", "uri=\"/customer\""));
+        assertTrue(bucket(scrape, "customer_service_seconds_bucket", "method=\"getCustomers\""));
+        assertTrue(bucket(scrape, "http_server_requests_sql_statements_bucket", "handler=\"CustomerController.getCustomerPage\""));
+    }
+
+    @Test
+    void asyncRequest() throws Exception {
+        long count = sql("CustomerController.streamCustomers").count();
+
+        MvcResult result = this.mockMvc.perform(get("/customer").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // 비동기로 넘어간 요청 스레드에는 카운터가 남지 않는다.
+        repository.findById(1L);
+        assertEquals(0, SqlStatementCounter.finish());
+
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+        // 스트리밍은 비동기 작업 스레드에서 읽으므로 요청 스레드에서 센 SQL 은 없다.
+        assertEquals(count + 1, sql("CustomerController.streamCustomers").count());
+    }
+
+    private static boolean bucket(String scrape, String name, String tag) {
+        return scrape.lines().anyMatch(line -> line.startsWith(name + "{") && line.contains(tag));
+    }
+
+    private DistributionSummary sql(String handler) {
+        return DistributionSummary.builder("http.server.requests.sql")
+                .baseUnit("statements")
+                .tag("handler", handler)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
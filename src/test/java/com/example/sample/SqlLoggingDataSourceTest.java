@@ -0,0 +1,113 @@
+package com.example.sample;
+
+import ch.qos.logback.classic.LoggerContext;
+import com.example.sample.common.jdbc.SqlLoggingDataSource;
+import com.example.sample.customer.CustomerService;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.logging.LogFile;
+import org.springframework.boot.logging.LoggingInitializationContext;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.logging.LoggingSystemProperties;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// prod 프로필의 SQL 로그(SqlLoggingDataSource)와 logback-spring.xml 의 파일 appender 를 확인한다.
+// 모든 SQL 이 느린 쿼리로 잡히도록 slow-threshold 를 0 으로 둔다.
+@SpringBootTest(properties = {"sample.sql-log.enabled=true", "sample.sql-log.slow-threshold=0ms"})
+@ExtendWith(OutputCaptureExtension.class)
+class SqlLoggingDataSourceTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Test
+    void slowQueryCaller(CapturedOutput output) {
+        customerService.getCustomers(0, 2);
+
+        // 프록시(CustomerService$$SpringCGLIB) 가 아니라 실제 서비스 메서드를 찾는다.
+        String line = output.getOut().lines()
+                .filter(l -> l.contains("slow query") && l.contains("customer_tb"))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+        assertTrue(line.contains("WARN"), line);
+        assertTrue(line.contains(" in CustomerService.getCustomers : "), line);
+    }
+
+    @Test
+    void unknownCaller(CapturedOutput output) throws SQLException {
+        execute(new SqlLoggingDataSource(h2(), Duration.ZERO, 0, "com.example.sample.customer."), 1);
+        assertTrue(output.getOut().contains(" in unknown : select 1"));
+    }
+
+    @Test
+    void sampling(CapturedOutput output) throws SQLException {
+        execute(new SqlLoggingDataSource(h2(), Duration.ofHours(1), 3, "com.example.sample.customer."), 6);
+
+        // 느린 쿼리가 없으면 3 건마다 한 건만 INFO 로 남긴다.
+        assertEquals(2, output.getOut().lines().filter(l -> l.contains("sampled query") && l.endsWith(": select 1")).count());
+        assertFalse(output.getOut().lines().anyMatch(l -> l.contains("slow query") && l.endsWith(": select 1")));
+    }
+
+    // 로깅은 JVM 에서 한 번만 초기화되므로 (캐시된 테스트 컨텍스트는 다시 하지 않는다) logging.file.name 을 준 환경으로
+    // logback-spring.xml 을 직접 다시 읽고, 끝나면 파일 없이 되돌린다.
+    @Test
+    void fileAppender(@TempDir Path directory) throws Exception {
+        Path logFile = directory.resolve("sample.log");
+        LoggingSystem loggingSystem = LoggingSystem.get(getClass().getClassLoader());
+        try {
+            initialize(loggingSystem, new MockEnvironment().withProperty("logging.file.name", logFile.toString()));
+            LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+            assertNotNull(context.getLogger(Logger.ROOT_LOGGER_NAME).getAppender("FILE"));
+
+            customerService.getCustomers(0, 1);
+            assertTrue(Files.readString(logFile, StandardCharsets.UTF_8).contains("slow query"));
+        } finally {
+            System.clearProperty(LoggingSystemProperties.LOG_FILE);
+            initialize(loggingSystem, new MockEnvironment());
+            assertNull(((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(Logger.ROOT_LOGGER_NAME).getAppender("FILE"));
+        }
+    }
+
+    private static void initialize(LoggingSystem loggingSystem, MockEnvironment environment) {
+        loggingSystem.cleanUp();
+        loggingSystem.beforeInitialize();
+        loggingSystem.initialize(new LoggingInitializationContext(environment), null, LogFile.get(environment));
+    }
+
+    private static JdbcDataSource h2() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:sql-log");
+        return dataSource;
+    }
+
+    private static void execute(SqlLoggingDataSource dataSource, int times) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select 1")) {
+            for (int i = 0; i < times; i++) {
+                statement.executeQuery().close();
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.sample;
+
+import com.example.sample.common.startup.StartupConfig;
+import com.example.sample.common.startup.StartupReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StartupConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(StartupConfig.class);
+
+    @Test
+    void startupReportOnlyInFastStart() {
+        contextRunner.run(context -> assertTrue(context.getBeansOfType(StartupReport.class).isEmpty()));
+        contextRunner.withPropertyValues("spring.profiles.active=prod")
+                .run(context -> assertTrue(context.getBeansOfType(StartupReport.class).isEmpty()));
+        contextRunner.withPropertyValues("spring.profiles.active=fast-start")
+                .run(context -> assertEquals(1, context.getBeansOfType(StartupReport.class).size()));
+    }
+}
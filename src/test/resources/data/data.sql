@@ -1,4 +1,4 @@
 insert into customer_tb (
-    name, tel
+    id, name, tel, version
 )
-values ('박진희', '01040234504')
\ No newline at end of file
+values (next value for customer_seq, '박진희', '01040234504', 0);